@@ -0,0 +1,14 @@
+package io.antmendoza.samples._5859;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DTO to be written as Smile instead of JSON by {@link SmilePayloadConverter}. Workers must
+ * be able to read Smile before any client or worker starts writing it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BinaryPayload {}
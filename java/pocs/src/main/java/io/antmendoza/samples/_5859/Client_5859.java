@@ -44,6 +44,8 @@ public class Client_5859 {
                 WorkflowClient.newInstance(
                         service,
                         WorkflowClientOptions.newBuilder()
+                                // Same codecs as the worker, results may be claim checks
+                                .setDataConverter(Worker_5859.newDataConverter())
                                 //.setContextPropagators(Collections.singletonList(new MyContextPropagator()))
                                 .build());
 
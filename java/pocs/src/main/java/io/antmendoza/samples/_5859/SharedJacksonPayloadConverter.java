@@ -0,0 +1,98 @@
+package io.antmendoza.samples._5859;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DataConverterException;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.common.converter.JacksonJsonPayloadConverter;
+import io.temporal.common.converter.PayloadConverter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code json/plain} converter sharing one tuned {@link ObjectMapper} across workers and clients,
+ * instead of a mapper built per sample.
+ *
+ * <p>The mapper is the SDK default (Jdk8 and JavaTime modules, unknown properties ignored) plus the
+ * Guava module for types like {@code ImmutableSet} and Blackbird, which replaces reflective
+ * accessors with generated lambdas. Readers and writers are cached per type, so a call does not
+ * look up serializers again. It writes the same JSON as {@link JacksonJsonPayloadConverter}, so
+ * workers and clients that still use the default converter read its payloads.
+ */
+public class SharedJacksonPayloadConverter implements PayloadConverter {
+
+  static final String ENCODING_TYPE = "json/plain";
+  private static final ByteString ENCODING = ByteString.copyFromUtf8(ENCODING_TYPE);
+
+  private static final ObjectMapper MAPPER =
+      JacksonJsonPayloadConverter.newDefaultObjectMapper()
+          .registerModule(new GuavaModule())
+          .registerModule(new BlackbirdModule());
+
+  private static final SharedJacksonPayloadConverter INSTANCE = new SharedJacksonPayloadConverter();
+
+  private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+  private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+  private SharedJacksonPayloadConverter() {}
+
+  public static SharedJacksonPayloadConverter getInstance() {
+    return INSTANCE;
+  }
+
+  static ObjectMapper objectMapper() {
+    return MAPPER;
+  }
+
+  /** The default data converter with {@code json/plain} handled by the shared mapper. */
+  public static DataConverter newDataConverter() {
+    return DefaultDataConverter.newDefaultInstance().withPayloadConverterOverrides(INSTANCE);
+  }
+
+  @Override
+  public String getEncodingType() {
+    return ENCODING_TYPE;
+  }
+
+  @Override
+  public Optional<Payload> toData(Object value) throws DataConverterException {
+    try {
+      final byte[] serialized =
+          writers.computeIfAbsent(value.getClass(), MAPPER::writerFor).writeValueAsBytes(value);
+      return Optional.of(
+          Payload.newBuilder()
+              .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING)
+              .setData(UnsafeByteOperations.unsafeWrap(serialized))
+              .build());
+    } catch (IOException e) {
+      throw new DataConverterException(e);
+    }
+  }
+
+  @Override
+  public <T> T fromData(Payload content, Class<T> valueClass, Type valueType)
+      throws DataConverterException {
+    final ByteString data = content.getData();
+    if (data.isEmpty()) {
+      return null;
+    }
+    try {
+      return readers
+          .computeIfAbsent(valueType, type -> MAPPER.readerFor(MAPPER.constructType(type)))
+          .readValue(data.newInput());
+    } catch (IOException e) {
+      throw new DataConverterException(e);
+    }
+  }
+}
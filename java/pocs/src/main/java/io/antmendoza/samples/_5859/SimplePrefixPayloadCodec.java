@@ -31,8 +31,6 @@ public class SimplePrefixPayloadCodec implements PayloadCodec {
     @Override
     public List<Payload> encode(List<Payload> payloads) {
 
-        System.out.println("Encoding ---> " +  payloads);
-
         return payloads.stream().map(this::encode).collect(Collectors.toList());
     }
 
@@ -45,7 +43,6 @@ public class SimplePrefixPayloadCodec implements PayloadCodec {
     public List<Payload> decode(List<Payload> payloads) {
 
 
-        System.out.println("Decoding ---> " +  payloads);
         return payloads.stream().map(this::decode).collect(Collectors.toList());
     }
 
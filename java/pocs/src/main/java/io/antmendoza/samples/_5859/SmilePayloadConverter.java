@@ -0,0 +1,116 @@
+package io.antmendoza.samples._5859;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DataConverterException;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.common.converter.PayloadConverter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes types annotated with {@link BinaryPayload} as Jackson Smile under the {@code binary/smile}
+ * encoding, a binary form of the same data model that is smaller and cheaper to parse than JSON.
+ * Other values are left to the converters after it.
+ *
+ * <p>Payloads are decoded by the converter registered for their encoding, so {@code json/plain}
+ * payloads already in history, or written by clients without this converter, are still read by the
+ * JSON converter. The Smile mapper is a copy of the {@link SharedJacksonPayloadConverter} one, with
+ * the same modules and settings.
+ */
+public class SmilePayloadConverter implements PayloadConverter {
+
+  private static final String ENCODING_TYPE = "binary/smile";
+  private static final ByteString ENCODING = ByteString.copyFromUtf8(ENCODING_TYPE);
+
+  private static final ObjectMapper MAPPER =
+      SharedJacksonPayloadConverter.objectMapper().copyWith(new SmileFactory());
+
+  private static final SmilePayloadConverter INSTANCE = new SmilePayloadConverter();
+
+  private static final ClassValue<Boolean> BINARY =
+      new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+          return type.isAnnotationPresent(BinaryPayload.class);
+        }
+      };
+
+  private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+  private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+  private SmilePayloadConverter() {}
+
+  public static SmilePayloadConverter getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * The default data converter with this converter just before JSON, which is handled by {@link
+   * SharedJacksonPayloadConverter}. The JSON converter accepts any value, so this one has to come
+   * first to see the annotated ones.
+   */
+  public static DataConverter newDataConverter() {
+    final List<PayloadConverter> converters = new ArrayList<>();
+    for (PayloadConverter converter : DefaultDataConverter.STANDARD_PAYLOAD_CONVERTERS) {
+      if (converter.getEncodingType().equals(SharedJacksonPayloadConverter.ENCODING_TYPE)) {
+        converters.add(INSTANCE);
+        converters.add(SharedJacksonPayloadConverter.getInstance());
+      } else {
+        converters.add(converter);
+      }
+    }
+    return new DefaultDataConverter(converters.toArray(new PayloadConverter[0]));
+  }
+
+  @Override
+  public String getEncodingType() {
+    return ENCODING_TYPE;
+  }
+
+  @Override
+  public Optional<Payload> toData(Object value) throws DataConverterException {
+    if (!BINARY.get(value.getClass())) {
+      return Optional.empty();
+    }
+    try {
+      final byte[] serialized =
+          writers.computeIfAbsent(value.getClass(), MAPPER::writerFor).writeValueAsBytes(value);
+      return Optional.of(
+          Payload.newBuilder()
+              .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING)
+              .setData(UnsafeByteOperations.unsafeWrap(serialized))
+              .build());
+    } catch (IOException e) {
+      throw new DataConverterException(e);
+    }
+  }
+
+  @Override
+  public <T> T fromData(Payload content, Class<T> valueClass, Type valueType)
+      throws DataConverterException {
+    final ByteString data = content.getData();
+    if (data.isEmpty()) {
+      return null;
+    }
+    try {
+      return readers
+          .computeIfAbsent(valueType, type -> MAPPER.readerFor(MAPPER.constructType(type)))
+          .readValue(data.newInput());
+    } catch (IOException e) {
+      throw new DataConverterException(e);
+    }
+  }
+}
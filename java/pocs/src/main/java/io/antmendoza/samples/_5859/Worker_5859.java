@@ -19,8 +19,8 @@
 
 package io.antmendoza.samples._5859;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import io.antmendoza.samples._6165.ClaimCheckCodec;
+import io.antmendoza.samples._6165.FileSystemBlobStore;
 import io.temporal.client.WorkflowClient;
 import io.temporal.client.WorkflowClientOptions;
 import io.temporal.common.converter.*;
@@ -28,7 +28,8 @@ import io.temporal.serviceclient.WorkflowServiceStubs;
 import io.temporal.worker.Worker;
 import io.temporal.worker.WorkerFactory;
 
-import java.util.Collections;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 import static io.antmendoza.samples._5859.Client_5859.TASK_QUEUE;
 
@@ -44,26 +45,33 @@ public class Worker_5859 {
 
     }
 
-    private static void startWorker(final WorkflowServiceStubs service) {
+    /**
+     * The data converter of this sample. Clients must use it too: they read the results the worker
+     * offloaded with {@link ClaimCheckCodec} and prefixed with {@link SimplePrefixPayloadCodec}.
+     */
+    static CodecDataConverter newDataConverter() {
+        return new CodecDataConverter(
+                // Default data converter, json handled by the shared tuned mapper
+                SharedJacksonPayloadConverter.newDataConverter(),
+                // Activity results above 128KiB are kept out of history, blobs go to a
+                // local directory standing in for an object store
+                Arrays.asList(
+                        new ClaimCheckCodec(new FileSystemBlobStore(
+                                Paths.get(System.getProperty("java.io.tmpdir"), "temporal-blobs"))),
+                        // Simple prefix codec to encode/decode
+                        new SimplePrefixPayloadCodec()),
+                true); // Setting encodeFailureAttributes to true
+    }
 
+    private static void startWorker(final WorkflowServiceStubs service) {
 
-        CodecDataConverter codecDataConverter =
-                new CodecDataConverter(
-                        // For sample we just use default data converter
-                        DefaultDataConverter.newDefaultInstance(),
-                        // Simple prefix codec to encode/decode
-                        Collections.singletonList(new SimplePrefixPayloadCodec()),
-                        true); // Setting encodeFailureAttributes to true
 
         // WorkflowClient uses our CodecDataConverter
         WorkflowClient client =
                 WorkflowClient.newInstance(
                         service,
                         WorkflowClientOptions.newBuilder()
-                                //.setDataConverter(DefaultDataConverter.newDefaultInstance()
-                                //        .withPayloadConverterOverrides(test()))
-
-                                .setDataConverter(codecDataConverter)
+                                .setDataConverter(newDataConverter())
                                 .build());
 
 
@@ -78,14 +86,5 @@ public class Worker_5859 {
         factory.start();
     }
 
-    private static PayloadConverter test() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new GuavaModule()); // I saw issues with this for our custom type
-        //objectMapper.registerModule(new Jdk8Module());
-        //objectMapper.registerModule(new JavaTimeModule());
-        // Add your custom logic here.
-        return new JacksonJsonPayloadConverter(objectMapper);
-    }
-
 
 }
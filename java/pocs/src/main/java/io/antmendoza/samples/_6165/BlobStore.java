@@ -0,0 +1,15 @@
+package io.antmendoza.samples._6165;
+
+import java.io.IOException;
+
+/** Storage for payloads kept out of workflow history by {@link ClaimCheckCodec}. */
+public interface BlobStore {
+
+  /**
+   * Stores the data and returns the key to read it back. Keys are derived from the content, so
+   * storing the same data twice returns the same key.
+   */
+  String put(byte[] data) throws IOException;
+
+  byte[] get(String key) throws IOException;
+}
@@ -0,0 +1,133 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Claim check: payloads above a threshold are written to a {@link BlobStore} and replaced in
+ * history by their key, keeping history and replays small.
+ *
+ * <p>Decoded payloads are kept in an LRU cache bounded by their serialized size, so a worker
+ * replaying the same workflow does not read the blobs again. Encoded payloads are cached as well,
+ * the worker that produced a result is the one most likely to read it back.
+ *
+ * <p>{@link io.temporal.common.converter.CodecDataConverter} encodes with the last codec of its
+ * list first. Put this codec first to offload payloads after they are compressed and encrypted:
+ * {@code Arrays.asList(new ClaimCheckCodec(store), new CryptCodec(), new CompressionCodec())}.
+ *
+ * <p>Every worker and client of the namespace must install the same codecs over the same store. A
+ * client without it gets the claim check instead of the workflow result.
+ */
+public class ClaimCheckCodec implements PayloadCodec {
+  static final ByteString METADATA_ENCODING =
+      ByteString.copyFrom("binary/claim-check", StandardCharsets.UTF_8);
+
+  public static final int DEFAULT_THRESHOLD_BYTES = 128 * 1024;
+  public static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+
+  private final BlobStore store;
+  private final int thresholdBytes;
+  private final PayloadCache cache;
+
+  public ClaimCheckCodec(BlobStore store) {
+    this(store, DEFAULT_THRESHOLD_BYTES, DEFAULT_CACHE_BYTES);
+  }
+
+  /**
+   * @param thresholdBytes serialized payloads this size or bigger are offloaded
+   * @param cacheBytes serialized size of the payloads kept in memory, 0 disables the cache
+   */
+  public ClaimCheckCodec(BlobStore store, int thresholdBytes, long cacheBytes) {
+    this.store = store;
+    this.thresholdBytes = thresholdBytes;
+    this.cache = new PayloadCache(cacheBytes);
+  }
+
+  @Override
+  public List<Payload> encode(List<Payload> payloads) {
+    return payloads.stream().map(this::encodePayload).collect(Collectors.toList());
+  }
+
+  @Override
+  public List<Payload> decode(List<Payload> payloads) {
+    return payloads.stream().map(this::decodePayload).collect(Collectors.toList());
+  }
+
+  private Payload encodePayload(Payload payload) {
+    if (payload.getSerializedSize() < thresholdBytes) {
+      return payload;
+    }
+    final String key;
+    try {
+      key = store.put(payload.toByteArray());
+    } catch (Exception e) {
+      throw new PayloadCodecException(e);
+    }
+    cache.put(key, payload);
+
+    return Payload.newBuilder()
+        .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, METADATA_ENCODING)
+        .setData(ByteString.copyFromUtf8(key))
+        .build();
+  }
+
+  private Payload decodePayload(Payload payload) {
+    if (!METADATA_ENCODING.equals(
+        payload.getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null))) {
+      return payload;
+    }
+    final String key = payload.getData().toStringUtf8();
+    Payload decoded = cache.get(key);
+    if (decoded == null) {
+      try {
+        decoded = Payload.parseFrom(store.get(key));
+      } catch (Exception e) {
+        throw new PayloadCodecException(e);
+      }
+      cache.put(key, decoded);
+    }
+    return decoded;
+  }
+
+  /** Least recently used payloads are evicted once their total serialized size is over budget. */
+  private static class PayloadCache {
+    private final long capacityBytes;
+    private final LinkedHashMap<String, Payload> payloads = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+
+    private PayloadCache(long capacityBytes) {
+      this.capacityBytes = capacityBytes;
+    }
+
+    synchronized Payload get(String key) {
+      return payloads.get(key);
+    }
+
+    synchronized void put(String key, Payload payload) {
+      final int size = payload.getSerializedSize();
+      if (size > capacityBytes) {
+        return;
+      }
+      final Payload previous = payloads.put(key, payload);
+      if (previous != null) {
+        sizeBytes -= previous.getSerializedSize();
+      }
+      sizeBytes += size;
+      final Iterator<Map.Entry<String, Payload>> eldest = payloads.entrySet().iterator();
+      while (sizeBytes > capacityBytes) {
+        final Map.Entry<String, Payload> entry = eldest.next();
+        sizeBytes -= entry.getValue().getSerializedSize();
+        eldest.remove();
+      }
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates payloads before they are encrypted, ciphertext does not compress.
+ *
+ * <p>{@link io.temporal.common.converter.CodecDataConverter} encodes with the last codec of its
+ * list first, so this codec goes after {@link CryptCodec}: {@code Arrays.asList(new CryptCodec(),
+ * new CompressionCodec())}.
+ *
+ * <p>Payloads smaller than the threshold, or that do not get smaller, are passed through untouched.
+ * Payloads without the compressed encoding are returned as they are on decode, so existing
+ * histories keep working.
+ */
+class CompressionCodec implements PayloadCodec {
+  static final ByteString METADATA_ENCODING =
+      ByteString.copyFrom("binary/zlib", StandardCharsets.UTF_8);
+
+  static final String METADATA_UNCOMPRESSED_SIZE_KEY = "compression-uncompressed-size";
+
+  static final int DEFAULT_THRESHOLD_BYTES = 1024;
+
+  private final int thresholdBytes;
+  private final ThreadLocal<Deflater> deflaters;
+  private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+  CompressionCodec() {
+    this(DEFAULT_THRESHOLD_BYTES, Deflater.BEST_SPEED);
+  }
+
+  /**
+   * @param thresholdBytes serialized payloads smaller than this are not compressed
+   * @param level {@link Deflater} compression level
+   */
+  CompressionCodec(int thresholdBytes, int level) {
+    this.thresholdBytes = thresholdBytes;
+    this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+  }
+
+  @Override
+  public List<Payload> encode(List<Payload> payloads) {
+    return payloads.stream().map(this::encodePayload).collect(Collectors.toList());
+  }
+
+  @Override
+  public List<Payload> decode(List<Payload> payloads) {
+    return payloads.stream().map(this::decodePayload).collect(Collectors.toList());
+  }
+
+  private Payload encodePayload(Payload payload) {
+    final int size = payload.getSerializedSize();
+    if (size < thresholdBytes) {
+      return payload;
+    }
+
+    final Deflater deflater = deflaters.get();
+    deflater.reset();
+    deflater.setInput(payload.toByteArray());
+    deflater.finish();
+    // output no bigger than the input, if it does not fit compressing is not worth it
+    final byte[] compressed = new byte[size];
+    int length = 0;
+    while (!deflater.finished() && length < compressed.length) {
+      length += deflater.deflate(compressed, length, compressed.length - length);
+    }
+    if (!deflater.finished()) {
+      return payload;
+    }
+
+    return Payload.newBuilder()
+        .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, METADATA_ENCODING)
+        .putMetadata(
+            METADATA_UNCOMPRESSED_SIZE_KEY, ByteString.copyFromUtf8(Integer.toString(size)))
+        .setData(UnsafeByteOperations.unsafeWrap(compressed, 0, length))
+        .build();
+  }
+
+  private Payload decodePayload(Payload payload) {
+    if (!METADATA_ENCODING.equals(
+        payload.getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null))) {
+      return payload;
+    }
+    try {
+      final int size =
+          Integer.parseInt(
+              payload
+                  .getMetadataOrThrow(METADATA_UNCOMPRESSED_SIZE_KEY)
+                  .toString(StandardCharsets.UTF_8));
+      return Payload.parseFrom(inflate(payload.getData(), size));
+    } catch (Exception e) {
+      throw new PayloadCodecException(e);
+    }
+  }
+
+  private byte[] inflate(ByteString compressed, int size) throws DataFormatException {
+    final Inflater inflater = inflaters.get();
+    inflater.reset();
+    inflater.setInput(compressed.asReadOnlyByteBuffer());
+    final byte[] plainData = new byte[size];
+    int length = 0;
+    while (!inflater.finished() && length < size) {
+      final int inflated = inflater.inflate(plainData, length, size - length);
+      if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+        break;
+      }
+      length += inflated;
+    }
+    if (!inflater.finished() || length != size) {
+      throw new DataFormatException("compressed payload does not inflate to " + size + " bytes");
+    }
+    return plainData;
+  }
+}
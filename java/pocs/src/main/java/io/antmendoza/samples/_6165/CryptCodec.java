@@ -20,6 +20,7 @@
 package io.antmendoza.samples._6165;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import io.temporal.api.common.v1.Payload;
 import io.temporal.common.converter.DataConverterException;
 import io.temporal.common.converter.EncodingKeys;
@@ -33,7 +34,9 @@ import javax.crypto.spec.SecretKeySpec;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -53,6 +56,33 @@ class CryptCodec implements PayloadCodec {
   private static final int GCM_TAG_LENGTH_BIT = 128;
   private static final Charset UTF_8 = StandardCharsets.UTF_8;
 
+  static final Duration KEY_TTL = Duration.ofMinutes(5);
+
+  // Cipher instances are expensive to look up and not thread safe, one per thread is reused.
+  private static final ThreadLocal<Cipher> CIPHERS =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return Cipher.getInstance(CIPHER);
+            } catch (GeneralSecurityException e) {
+              throw new IllegalStateException(e);
+            }
+          });
+
+  // SecureRandom is thread safe, seeding a new one per payload is what costs.
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private final KeyCache keys;
+
+  CryptCodec() {
+    // Key must be fetched from KMS or other secure storage.
+    // Hard coded here only for example purposes.
+    this(new KeyCache(keyId -> new SecretKeySpec(keyId.getBytes(UTF_8), "AES"), KEY_TTL));
+  }
+
+  CryptCodec(KeyCache keys) {
+    this.keys = keys;
+  }
 
   @Override
   public List<Payload> encode( List<Payload> payloads) {
@@ -73,23 +103,18 @@ class CryptCodec implements PayloadCodec {
     String keyId = getKeyId();
     SecretKey key = getKey(keyId);
 
-    byte[] encryptedData;
+    ByteString encryptedData;
     try {
       encryptedData = encrypt(payload.toByteArray(), key);
     } catch (Throwable e) {
       throw new DataConverterException(e);
     }
 
-
-    if(payload.getData().toString().contains("my exception")){
-      System.out.println(">>>> " + payload.getData());
-    }
-
     return Payload.newBuilder()
         .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, METADATA_ENCODING)
         .putMetadata(METADATA_ENCRYPTION_CIPHER_KEY, METADATA_ENCRYPTION_CIPHER)
         .putMetadata(METADATA_ENCRYPTION_KEY_ID_KEY, ByteString.copyFromUtf8(keyId))
-        .setData(ByteString.copyFrom(encryptedData))
+        .setData(encryptedData)
         .build();
 
 
@@ -109,11 +134,11 @@ class CryptCodec implements PayloadCodec {
       }
       SecretKey key = getKey(keyId);
 
-      byte[] plainData;
+      ByteBuffer plainData;
       Payload decryptedPayload;
 
       try {
-        plainData = decrypt(payload.getData().toByteArray(), key);
+        plainData = decrypt(payload.getData(), key);
         decryptedPayload = Payload.parseFrom(plainData);
         return decryptedPayload;
       } catch (Throwable e) {
@@ -135,41 +160,46 @@ class CryptCodec implements PayloadCodec {
   }
 
   private SecretKey getKey(String keyId) {
-    // Key must be fetched from KMS or other secure storage.
-    // Hard coded here only for example purposes.
-    return new SecretKeySpec(keyId.getBytes(UTF_8), "AES");
+    return keys.get(keyId);
   }
 
   private static byte[] getNonce(int size) {
     byte[] nonce = new byte[size];
-    new SecureRandom().nextBytes(nonce);
+    RANDOM.nextBytes(nonce);
     return nonce;
   }
 
-  private byte[] encrypt(byte[] plainData, SecretKey key) throws Exception {
+  // Encrypts straight into one array sized for nonce, ciphertext and tag, and hands that array to
+  // protobuf without copying it again. Nothing else holds a reference to it.
+  private ByteString encrypt(byte[] plainData, SecretKey key) throws Exception {
     byte[] nonce = getNonce(GCM_NONCE_LENGTH_BYTE);
 
-    Cipher cipher = Cipher.getInstance(CIPHER);
+    Cipher cipher = CIPHERS.get();
     cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH_BIT, nonce));
 
-    byte[] encryptedData = cipher.doFinal(plainData);
-    return ByteBuffer.allocate(nonce.length + encryptedData.length)
-        .put(nonce)
-        .put(encryptedData)
-        .array();
+    ByteBuffer encryptedDataWithNonce =
+        ByteBuffer.allocate(nonce.length + cipher.getOutputSize(plainData.length)).put(nonce);
+    cipher.doFinal(ByteBuffer.wrap(plainData), encryptedDataWithNonce);
+    return UnsafeByteOperations.unsafeWrap(
+        encryptedDataWithNonce.array(), 0, encryptedDataWithNonce.position());
   }
 
-  private byte[] decrypt(byte[] encryptedDataWithNonce, SecretKey key) throws Exception {
-    ByteBuffer buffer = ByteBuffer.wrap(encryptedDataWithNonce);
-
+  // Reads the nonce and ciphertext through a read-only view of the payload data, only the plain
+  // data is written to a new buffer.
+  private ByteBuffer decrypt(ByteString encryptedDataWithNonce, SecretKey key) throws Exception {
+    if (encryptedDataWithNonce.size() < GCM_NONCE_LENGTH_BYTE) {
+      throw new IllegalArgumentException("encrypted data is shorter than the nonce");
+    }
+    ByteBuffer encryptedData = encryptedDataWithNonce.asReadOnlyByteBuffer();
     byte[] nonce = new byte[GCM_NONCE_LENGTH_BYTE];
-    buffer.get(nonce);
-    byte[] encryptedData = new byte[buffer.remaining()];
-    buffer.get(encryptedData);
+    // leaves the view positioned at the ciphertext
+    encryptedData.get(nonce);
 
-    Cipher cipher = Cipher.getInstance(CIPHER);
+    Cipher cipher = CIPHERS.get();
     cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH_BIT, nonce));
 
-    return cipher.doFinal(encryptedData);
+    ByteBuffer plainData = ByteBuffer.allocate(cipher.getOutputSize(encryptedData.remaining()));
+    cipher.doFinal(encryptedData, plainData);
+    return plainData.flip();
   }
 }
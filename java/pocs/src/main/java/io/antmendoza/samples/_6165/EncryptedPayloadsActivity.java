@@ -41,8 +41,8 @@ import io.temporal.workflow.WorkflowMethod;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -108,7 +108,8 @@ public class EncryptedPayloadsActivity {
                 .setDataConverter(
                     new CodecDataConverter(
                         DefaultDataConverter.newDefaultInstance(),
-                        Collections.singletonList(new CryptCodec()), true))
+                        // encode runs the last codec first: compress, then encrypt
+                        Arrays.asList(new CryptCodec(), new CompressionCodec()), true))
                 .build());
 
     // worker factory that can be used to create workers for specific task queues
@@ -0,0 +1,77 @@
+package io.antmendoza.samples._6165;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Stands in for an object store such as S3 or GCS. Blobs are files named after the SHA-256 of their
+ * content under {@code root}, so every worker and client pointed at the same directory can read
+ * them. Blobs are checked against their name when read, a corrupted or swapped file fails instead
+ * of decoding into another payload.
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final Path root;
+
+  public FileSystemBlobStore(Path root) {
+    this.root = root;
+  }
+
+  @Override
+  public String put(byte[] data) throws IOException {
+    final String key = sha256(data);
+    final Path path = path(key);
+    if (Files.exists(path)) {
+      return key;
+    }
+    Files.createDirectories(path.getParent());
+    // readers never see a partially written blob
+    final Path tmp = Files.createTempFile(path.getParent(), key, ".tmp");
+    try {
+      Files.write(tmp, data);
+      Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+    return key;
+  }
+
+  @Override
+  public byte[] get(String key) throws IOException {
+    if (key.length() != 64 || !key.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+      throw new NoSuchFileException(key, null, "not a blob key");
+    }
+    final byte[] data = Files.readAllBytes(path(key));
+    if (!sha256(data).equals(key)) {
+      throw new IOException("Blob " + path(key) + " does not match its key, it is corrupted");
+    }
+    return data;
+  }
+
+  // two levels of fan out keep directories small
+  private Path path(String key) {
+    return root.resolve(key.substring(0, 2)).resolve(key);
+  }
+
+  private static String sha256(byte[] data) {
+    final byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256").digest(data);
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+    final char[] hex = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; i++) {
+      hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+      hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+    }
+    return new String(hex);
+  }
+}
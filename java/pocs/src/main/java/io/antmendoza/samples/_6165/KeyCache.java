@@ -0,0 +1,59 @@
+package io.antmendoza.samples._6165;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import javax.crypto.SecretKey;
+
+/**
+ * Keys by key id, fetched once and kept for a time to live.
+ *
+ * <p>Payloads record the id of the key that encrypted them, so rotating keys only needs a new key
+ * id for encryption: older ids are still loaded for decryption. Entries expire so that key material
+ * changed or revoked in the key store is fetched again.
+ */
+class KeyCache {
+
+  private final Function<String, SecretKey> loader;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+  private final Map<String, Entry> keys = new ConcurrentHashMap<>();
+
+  /** @param loader fetches a key from the KMS or other secure storage */
+  KeyCache(Function<String, SecretKey> loader, Duration ttl) {
+    this(loader, ttl, System::nanoTime);
+  }
+
+  KeyCache(Function<String, SecretKey> loader, Duration ttl, LongSupplier nanoClock) {
+    this.loader = loader;
+    this.ttlNanos = ttl.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  SecretKey get(String keyId) {
+    final long now = nanoClock.getAsLong();
+    Entry entry = keys.get(keyId);
+    if (entry == null || now - entry.loadedAtNanos >= ttlNanos) {
+      // concurrent misses may load the same key twice, the last one wins
+      entry = new Entry(loader.apply(keyId), now);
+      keys.put(keyId, entry);
+    }
+    return entry.key;
+  }
+
+  void invalidate(String keyId) {
+    keys.remove(keyId);
+  }
+
+  private static class Entry {
+    private final SecretKey key;
+    private final long loadedAtNanos;
+
+    private Entry(SecretKey key, long loadedAtNanos) {
+      this.key = key;
+      this.loadedAtNanos = loadedAtNanos;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package io.antmendoza.samples._6165;
+
+import com.uber.m3.tally.Counter;
+import com.uber.m3.tally.Gauge;
+import com.uber.m3.tally.Scope;
+import com.uber.m3.tally.Timer;
+import com.uber.m3.util.Duration;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.context.SerializationContext;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Reports how much time and data goes through a codec, tagged with {@code codec} and {@code
+ * direction} ({@code encode} or {@code decode}):
+ *
+ * <ul>
+ *   <li>{@value #LATENCY}: time spent in the delegate per call
+ *   <li>{@value #BYTES_IN}, {@value #BYTES_OUT}: serialized size of the payloads before and after
+ *   <li>{@value #SIZE_RATIO}: bytes out over bytes in since start, below 1 when the codec
+ *       compresses
+ * </ul>
+ *
+ * <p>Meters are resolved once per direction and shared by the codecs returned by {@link
+ * #withContext(SerializationContext)}. A call only reads the clock, sums the payload sizes
+ * (protobuf memoizes them) and updates the meters. The tally timer API takes a {@link Duration},
+ * the one object created per call. Calls that fail are timed too.
+ */
+public class MetricsPayloadCodec implements PayloadCodec {
+
+  public static final String LATENCY = "payload_codec_latency";
+  public static final String BYTES_IN = "payload_codec_bytes_in";
+  public static final String BYTES_OUT = "payload_codec_bytes_out";
+  public static final String SIZE_RATIO = "payload_codec_size_ratio";
+
+  private final PayloadCodec delegate;
+  private final Meters encodeMeters;
+  private final Meters decodeMeters;
+  // bound once, a method reference per call would allocate
+  private final UnaryOperator<List<Payload>> encode;
+  private final UnaryOperator<List<Payload>> decode;
+
+  public MetricsPayloadCodec(PayloadCodec delegate, Scope scope, String codec) {
+    this(
+        delegate,
+        new Meters(scope.tagged(Map.of("codec", codec, "direction", "encode"))),
+        new Meters(scope.tagged(Map.of("codec", codec, "direction", "decode"))));
+  }
+
+  private MetricsPayloadCodec(PayloadCodec delegate, Meters encodeMeters, Meters decodeMeters) {
+    this.delegate = delegate;
+    this.encodeMeters = encodeMeters;
+    this.decodeMeters = decodeMeters;
+    this.encode = delegate::encode;
+    this.decode = delegate::decode;
+  }
+
+  @Override
+  public PayloadCodec withContext(SerializationContext context) {
+    return new MetricsPayloadCodec(delegate.withContext(context), encodeMeters, decodeMeters);
+  }
+
+  @Override
+  public List<Payload> encode(List<Payload> payloads) {
+    return encodeMeters.record(payloads, encode);
+  }
+
+  @Override
+  public List<Payload> decode(List<Payload> payloads) {
+    return decodeMeters.record(payloads, decode);
+  }
+
+  private static class Meters {
+    private final Timer latency;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+    private final Gauge sizeRatio;
+    private final LongAdder totalIn = new LongAdder();
+    private final LongAdder totalOut = new LongAdder();
+
+    private Meters(Scope scope) {
+      latency = scope.timer(LATENCY);
+      bytesIn = scope.counter(BYTES_IN);
+      bytesOut = scope.counter(BYTES_OUT);
+      sizeRatio = scope.gauge(SIZE_RATIO);
+    }
+
+    private List<Payload> record(List<Payload> payloads, UnaryOperator<List<Payload>> codec) {
+      final long start = System.nanoTime();
+      final List<Payload> result;
+      try {
+        result = codec.apply(payloads);
+      } finally {
+        latency.record(Duration.ofNanos(System.nanoTime() - start));
+      }
+
+      final long in = serializedSize(payloads);
+      final long out = serializedSize(result);
+      bytesIn.inc(in);
+      bytesOut.inc(out);
+      totalIn.add(in);
+      totalOut.add(out);
+      final long total = totalIn.sum();
+      if (total > 0) {
+        sizeRatio.update((double) totalOut.sum() / total);
+      }
+      return result;
+    }
+
+    private static long serializedSize(List<Payload> payloads) {
+      long size = 0;
+      for (int i = 0; i < payloads.size(); i++) {
+        size += payloads.get(i).getSerializedSize();
+      }
+      return size;
+    }
+  }
+}
@@ -23,16 +23,22 @@ import com.sun.net.httpserver.HttpServer;
 import com.uber.m3.tally.RootScopeBuilder;
 import com.uber.m3.tally.Scope;
 import com.uber.m3.util.ImmutableMap;
+import io.antmendoza.samples._5859.SimplePrefixPayloadCodec;
+import io.antmendoza.samples._6165.MetricsPayloadCodec;
 import io.antmendoza.samples._6442.activities.MetricsActivitiesImpl;
 import io.antmendoza.samples._6442.workflow.MetricsWorkflowImpl;
 import io.micrometer.prometheus.PrometheusConfig;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
 import io.temporal.common.reporter.MicrometerClientStatsReporter;
 import io.temporal.serviceclient.WorkflowServiceStubs;
 import io.temporal.serviceclient.WorkflowServiceStubsOptions;
 import io.temporal.worker.Worker;
 import io.temporal.worker.WorkerFactory;
+import java.util.Collections;
 
 public class MetricsWorker {
 
@@ -65,7 +71,19 @@ public class MetricsWorker {
         WorkflowServiceStubsOptions.newBuilder().setMetricsScope(scope).build();
 
     WorkflowServiceStubs service = WorkflowServiceStubs.newServiceStubs(stubOptions);
-    WorkflowClient client = WorkflowClient.newInstance(service);
+    // Report codec latency and payload sizes through the same scope
+    WorkflowClient client =
+        WorkflowClient.newInstance(
+            service,
+            WorkflowClientOptions.newBuilder()
+                .setDataConverter(
+                    new CodecDataConverter(
+                        DefaultDataConverter.newDefaultInstance(),
+                        Collections.singletonList(
+                            new MetricsPayloadCodec(
+                                new SimplePrefixPayloadCodec(), scope, "prefix")),
+                        true))
+                .build());
     WorkerFactory factory = WorkerFactory.newInstance(client);
 
     Worker worker = factory.newWorker(DEFAULT_TASK_QUEUE_NAME);
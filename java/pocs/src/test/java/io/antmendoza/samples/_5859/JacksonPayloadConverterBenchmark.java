@@ -0,0 +1,85 @@
+package io.antmendoza.samples._5859;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializing and deserializing model types with the default data converter and with {@link
+ * SharedJacksonPayloadConverter}.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main JacksonPayloadConverterBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonPayloadConverterBenchmark {
+
+  @Param({"default", "shared"})
+  public String converter;
+
+  private DataConverter dataConverter;
+  private MyActivityResponse response;
+  private Person[] people;
+  private Payload responsePayload;
+  private Payload peoplePayload;
+
+  @Setup
+  public void setup() {
+    dataConverter =
+        converter.equals("shared")
+            ? SharedJacksonPayloadConverter.newDataConverter()
+            : DefaultDataConverter.newDefaultInstance();
+    response = new MyActivityResponse("A", "B");
+    people = new Person[100];
+    for (int i = 0; i < people.length; i++) {
+      people[i] =
+          new Person(
+              "first-" + i,
+              "last-" + i,
+              LocalDate.of(1970, 1, 1).plusDays(i),
+              List.of("person-" + i + "@example.com"));
+    }
+    responsePayload = dataConverter.toPayload(response).get();
+    peoplePayload = dataConverter.toPayload(people).get();
+  }
+
+  @Benchmark
+  public Payload serializeResponse() {
+    return dataConverter.toPayload(response).get();
+  }
+
+  @Benchmark
+  public MyActivityResponse deserializeResponse() {
+    return dataConverter.fromPayload(
+        responsePayload, MyActivityResponse.class, MyActivityResponse.class);
+  }
+
+  @Benchmark
+  public Payload serializePeople() {
+    return dataConverter.toPayload(people).get();
+  }
+
+  @Benchmark
+  public Person[] deserializePeople() {
+    return dataConverter.fromPayload(peoplePayload, Person[].class, Person[].class);
+  }
+}
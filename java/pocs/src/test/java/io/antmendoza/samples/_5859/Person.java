@@ -0,0 +1,74 @@
+package io.antmendoza.samples._5859;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/** Model type for the payload converter test and benchmark. */
+public class Person {
+  private String firstName;
+  private String lastName;
+  private LocalDate birthDate;
+  private List<String> emails;
+
+  public Person() {}
+
+  public Person(String firstName, String lastName, LocalDate birthDate, List<String> emails) {
+    this.firstName = firstName;
+    this.lastName = lastName;
+    this.birthDate = birthDate;
+    this.emails = emails;
+  }
+
+  public String getFirstName() {
+    return firstName;
+  }
+
+  public void setFirstName(String firstName) {
+    this.firstName = firstName;
+  }
+
+  public String getLastName() {
+    return lastName;
+  }
+
+  public void setLastName(String lastName) {
+    this.lastName = lastName;
+  }
+
+  public LocalDate getBirthDate() {
+    return birthDate;
+  }
+
+  public void setBirthDate(LocalDate birthDate) {
+    this.birthDate = birthDate;
+  }
+
+  public List<String> getEmails() {
+    return emails;
+  }
+
+  public void setEmails(List<String> emails) {
+    this.emails = emails;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Person)) {
+      return false;
+    }
+    final Person person = (Person) o;
+    return Objects.equals(firstName, person.firstName)
+        && Objects.equals(lastName, person.lastName)
+        && Objects.equals(birthDate, person.birthDate)
+        && Objects.equals(emails, person.emails);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(firstName, lastName, birthDate, emails);
+  }
+}
@@ -0,0 +1,45 @@
+package io.antmendoza.samples._5859;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.reflect.TypeToken;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SharedJacksonPayloadConverterTest {
+
+  private final DataConverter converter = SharedJacksonPayloadConverter.newDataConverter();
+
+  @Test
+  void readsGuavaCollections() {
+    final Type type = new TypeToken<ImmutableSet<MyActivityResponse>>() {}.getType();
+    final Payload payload =
+        converter.toPayload(ImmutableSet.of(new MyActivityResponse("A", "B"))).get();
+
+    final ImmutableSet<MyActivityResponse> value =
+        converter.fromPayload(payload, ImmutableSet.class, type);
+
+    Assertions.assertEquals(1, value.size());
+    Assertions.assertEquals("A", value.iterator().next().getName());
+    Assertions.assertEquals("B", value.iterator().next().getName2());
+  }
+
+  @Test
+  void writesTheSameJsonAsTheDefaultConverter() {
+    final DataConverter defaultConverter = DefaultDataConverter.newDefaultInstance();
+    final Person person =
+        new Person("Ada", "Lovelace", LocalDate.of(1815, 12, 10), List.of("ada@example.com"));
+
+    final Payload payload = converter.toPayload(person).get();
+
+    Assertions.assertEquals(defaultConverter.toPayload(person).get(), payload);
+    Assertions.assertEquals(
+        person, defaultConverter.fromPayload(payload, Person.class, Person.class));
+    Assertions.assertEquals(person, converter.fromPayload(payload, Person.class, Person.class));
+  }
+}
@@ -0,0 +1,79 @@
+package io.antmendoza.samples._5859;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SmilePayloadConverterTest {
+
+  @BinaryPayload
+  public static class Team {
+    private List<Person> members = new ArrayList<>();
+
+    public List<Person> getMembers() {
+      return members;
+    }
+
+    public void setMembers(List<Person> members) {
+      this.members = members;
+    }
+  }
+
+  private final DataConverter converter = SmilePayloadConverter.newDataConverter();
+
+  private static Team team() {
+    final Team team = new Team();
+    for (int i = 0; i < 20; i++) {
+      team.getMembers()
+          .add(
+              new Person(
+                  "first-" + i,
+                  "last-" + i,
+                  LocalDate.of(1990, 1, 1).plusDays(i),
+                  List.of("member-" + i + "@example.com")));
+    }
+    return team;
+  }
+
+  private static String encoding(Payload payload) {
+    return payload.getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY).toStringUtf8();
+  }
+
+  @Test
+  void annotatedTypesAreWrittenAsSmile() {
+    final Team team = team();
+
+    final Payload payload = converter.toPayload(team).get();
+
+    Assertions.assertEquals("binary/smile", encoding(payload));
+    Assertions.assertTrue(
+        payload.getSerializedSize()
+            < DefaultDataConverter.newDefaultInstance().toPayload(team).get().getSerializedSize());
+    Assertions.assertEquals(
+        team.getMembers(), converter.fromPayload(payload, Team.class, Team.class).getMembers());
+  }
+
+  @Test
+  void otherTypesStayJson() {
+    final Person person = new Person("Ada", "Lovelace", LocalDate.of(1815, 12, 10), List.of());
+
+    Assertions.assertEquals("json/plain", encoding(converter.toPayload(person).get()));
+    Assertions.assertEquals("json/plain", encoding(converter.toPayload("text").get()));
+  }
+
+  @Test
+  void jsonWrittenBeforeIsStillRead() {
+    final Team team = team();
+    final Payload json = DefaultDataConverter.newDefaultInstance().toPayload(team).get();
+
+    Assertions.assertEquals("json/plain", encoding(json));
+    Assertions.assertEquals(
+        team.getMembers(), converter.fromPayload(json, Team.class, Team.class).getMembers());
+  }
+}
@@ -0,0 +1,134 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodecException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClaimCheckCodecTest {
+
+  @TempDir Path blobs;
+
+  private static List<Payload> payloadOf(int bytes) {
+    final byte[] data = new byte[bytes];
+    new Random(bytes).nextBytes(data);
+    return Collections.singletonList(
+        Payload.newBuilder().setData(ByteString.copyFrom(data)).build());
+  }
+
+  /** Counts the reads that reach the file system. */
+  private class CountingStore extends FileSystemBlobStore {
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private CountingStore() {
+      super(blobs);
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+      reads.incrementAndGet();
+      return super.get(key);
+    }
+  }
+
+  @Test
+  void smallPayloadsStayInHistory() {
+    final List<Payload> payloads = payloadOf(100);
+
+    Assertions.assertSame(
+        payloads.get(0), new ClaimCheckCodec(new CountingStore()).encode(payloads).get(0));
+  }
+
+  @Test
+  void largePayloadsAreReplacedByAReference() {
+    final CountingStore store = new CountingStore();
+    final List<Payload> payloads = payloadOf(ClaimCheckCodec.DEFAULT_THRESHOLD_BYTES);
+
+    final List<Payload> encoded = new ClaimCheckCodec(store).encode(payloads);
+
+    Assertions.assertEquals(
+        ClaimCheckCodec.METADATA_ENCODING,
+        encoded.get(0).getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY));
+    Assertions.assertTrue(encoded.get(0).getSerializedSize() < 200);
+    // another worker, with an empty cache, reads the blob back
+    Assertions.assertEquals(payloads, new ClaimCheckCodec(store).decode(encoded));
+    Assertions.assertEquals(1, store.reads.get());
+  }
+
+  @Test
+  void recentlyFetchedBlobsAreCached() {
+    final CountingStore store = new CountingStore();
+    final int size = 1024;
+    final List<Payload> first = new ClaimCheckCodec(store, size, 0).encode(payloadOf(size));
+    final List<Payload> second = new ClaimCheckCodec(store, size, 0).encode(payloadOf(size + 1));
+    // room for a single blob
+    final ClaimCheckCodec codec = new ClaimCheckCodec(store, size, size + 100);
+
+    codec.decode(first);
+    codec.decode(first);
+    Assertions.assertEquals(1, store.reads.get());
+
+    codec.decode(second);
+    codec.decode(second);
+    Assertions.assertEquals(2, store.reads.get());
+
+    codec.decode(first);
+    Assertions.assertEquals(3, store.reads.get());
+  }
+
+  @Test
+  void missingBlobsFailDecoding() {
+    final ClaimCheckCodec codec = new ClaimCheckCodec(new CountingStore());
+    final List<Payload> missing =
+        Collections.singletonList(
+            Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ClaimCheckCodec.METADATA_ENCODING)
+                .setData(ByteString.copyFromUtf8("../../etc/passwd"))
+                .build());
+
+    Assertions.assertThrows(PayloadCodecException.class, () -> codec.decode(missing));
+  }
+
+  @Test
+  void corruptedBlobsFailDecoding() throws IOException {
+    final ClaimCheckCodec codec = new ClaimCheckCodec(new CountingStore(), 0, 0);
+    final List<Payload> encoded = codec.encode(payloadOf(1024));
+    // another valid payload under the key of the first one
+    final String key = encoded.get(0).getData().toStringUtf8();
+    Files.write(
+        blobs.resolve(key.substring(0, 2)).resolve(key), payloadOf(512).get(0).toByteArray());
+
+    Assertions.assertThrows(PayloadCodecException.class, () -> codec.decode(encoded));
+  }
+
+  @Test
+  void storeFailuresFailEncoding() {
+    final ClaimCheckCodec codec =
+        new ClaimCheckCodec(
+            new BlobStore() {
+              @Override
+              public String put(byte[] data) throws IOException {
+                throw new IOException("read only");
+              }
+
+              @Override
+              public byte[] get(String key) throws IOException {
+                throw new IOException("read only");
+              }
+            },
+            0,
+            0);
+
+    Assertions.assertThrows(PayloadCodecException.class, () -> codec.encode(payloadOf(1024)));
+  }
+}
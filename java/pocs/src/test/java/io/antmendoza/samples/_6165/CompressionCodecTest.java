@@ -0,0 +1,105 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.api.common.v1.Payloads;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CompressionCodecTest {
+
+  private static Payload json(String data) {
+    return Payload.newBuilder()
+        .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ByteString.copyFromUtf8("json/plain"))
+        .setData(ByteString.copyFromUtf8(data))
+        .build();
+  }
+
+  private static Map<String, Object> verboseJson() {
+    final Map<String, Object> value = new TreeMap<>();
+    for (int i = 0; i < 200; i++) {
+      value.put("customerIdentifier" + i, "some-verbose-value-" + (i % 7));
+    }
+    return value;
+  }
+
+  @Test
+  void smallPayloadsAreNotCompressed() {
+    final List<Payload> payloads = Collections.singletonList(json("\"hello\""));
+
+    Assertions.assertSame(payloads.get(0), new CompressionCodec().encode(payloads).get(0));
+  }
+
+  @Test
+  void largePayloadsRoundTrip() {
+    final CompressionCodec codec = new CompressionCodec();
+    final StringBuilder data = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      data.append("{\"name\":\"item-").append(i % 10).append("\",\"enabled\":true},");
+    }
+    final List<Payload> plain = Collections.singletonList(json(data.toString()));
+
+    final List<Payload> compressed = codec.encode(plain);
+
+    Assertions.assertEquals(
+        CompressionCodec.METADATA_ENCODING,
+        compressed.get(0).getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY));
+    Assertions.assertTrue(
+        compressed.get(0).getSerializedSize() < plain.get(0).getSerializedSize() / 4);
+    Assertions.assertEquals(plain, codec.decode(compressed));
+  }
+
+  @Test
+  void incompressiblePayloadsAreNotCompressed() {
+    final byte[] random = new byte[4096];
+    new Random(1).nextBytes(random);
+    final List<Payload> payloads =
+        Collections.singletonList(
+            Payload.newBuilder().setData(ByteString.copyFrom(random)).build());
+
+    Assertions.assertSame(payloads.get(0), new CompressionCodec().encode(payloads).get(0));
+  }
+
+  @Test
+  void uncompressedPayloadsDecodeAsTheyAre() {
+    final List<Payload> payloads = Collections.singletonList(json("\"written before\""));
+
+    Assertions.assertSame(payloads.get(0), new CompressionCodec().decode(payloads).get(0));
+  }
+
+  @Test
+  void compressesBeforeEncrypting() {
+    final CodecDataConverter encryptOnly =
+        new CodecDataConverter(
+            DefaultDataConverter.newDefaultInstance(),
+            Collections.singletonList(new CryptCodec()),
+            true);
+    final CodecDataConverter compressAndEncrypt =
+        new CodecDataConverter(
+            DefaultDataConverter.newDefaultInstance(),
+            Arrays.asList(new CryptCodec(), new CompressionCodec()),
+            true);
+    final Map<String, Object> value = verboseJson();
+
+    final Payloads encrypted = compressAndEncrypt.toPayloads(value).get();
+
+    Assertions.assertEquals(
+        CryptCodec.METADATA_ENCODING,
+        encrypted.getPayloads(0).getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY));
+    Assertions.assertTrue(
+        encrypted.getSerializedSize()
+            < encryptOnly.toPayloads(value).get().getSerializedSize() / 4);
+    Assertions.assertEquals(
+        value, compressAndEncrypt.fromPayloads(0, Optional.of(encrypted), Map.class, Map.class));
+  }
+}
@@ -0,0 +1,67 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encode and decode throughput of {@link CryptCodec} by payload size.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main CryptCodecBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptCodecBenchmark {
+
+  @Param({"1024", "65536", "2097152"})
+  public int payloadBytes;
+
+  private CryptCodec codec;
+  private List<Payload> plain;
+  private List<Payload> encrypted;
+
+  @Setup
+  public void setup() {
+    final byte[] data = new byte[payloadBytes];
+    new Random(42).nextBytes(data);
+    codec = new CryptCodec();
+    plain =
+        Collections.singletonList(
+            Payload.newBuilder()
+                .putMetadata(
+                    EncodingKeys.METADATA_ENCODING_KEY, ByteString.copyFromUtf8("binary/plain"))
+                .setData(ByteString.copyFrom(data))
+                .build());
+    encrypted = codec.encode(plain);
+  }
+
+  @Benchmark
+  public List<Payload> encode() {
+    return codec.encode(plain);
+  }
+
+  @Benchmark
+  public List<Payload> decode() {
+    return codec.decode(encrypted);
+  }
+}
@@ -0,0 +1,77 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CryptCodecTest {
+
+  private static SecretKey key(String keyId) {
+    return new SecretKeySpec(keyId.getBytes(), "AES");
+  }
+
+  @Test
+  void roundTrip() {
+    final CryptCodec codec = new CryptCodec();
+    final List<Payload> plain =
+        Collections.singletonList(
+            Payload.newBuilder()
+                .putMetadata(
+                    EncodingKeys.METADATA_ENCODING_KEY, ByteString.copyFromUtf8("json/plain"))
+                .setData(ByteString.copyFromUtf8("\"hello\""))
+                .build());
+
+    final List<Payload> encrypted = codec.encode(plain);
+
+    Assertions.assertEquals(
+        CryptCodec.METADATA_ENCODING,
+        encrypted.get(0).getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY));
+    Assertions.assertNotEquals(plain.get(0).getData(), encrypted.get(0).getData());
+    // a fresh nonce per payload
+    Assertions.assertNotEquals(encrypted.get(0).getData(), codec.encode(plain).get(0).getData());
+    Assertions.assertEquals(plain, codec.decode(encrypted));
+  }
+
+  @Test
+  void keysAreCachedUntilTheyExpire() {
+    final AtomicInteger loads = new AtomicInteger();
+    final AtomicLong now = new AtomicLong();
+    final KeyCache cache =
+        new KeyCache(
+            keyId -> {
+              loads.incrementAndGet();
+              return key(keyId);
+            },
+            Duration.ofSeconds(10),
+            now::get);
+
+    final String keyId = "test-key-test-key-test-key-test!";
+    final SecretKey first = cache.get(keyId);
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+    Assertions.assertSame(first, cache.get(keyId));
+    Assertions.assertEquals(1, loads.get());
+
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    cache.get(keyId);
+    Assertions.assertEquals(2, loads.get());
+
+    // a rotated key id is loaded on its own, the previous one stays usable
+    cache.get("rotated-key-rotated-key-rotated!");
+    Assertions.assertEquals(3, loads.get());
+    cache.get(keyId);
+    Assertions.assertEquals(3, loads.get());
+
+    cache.invalidate(keyId);
+    cache.get(keyId);
+    Assertions.assertEquals(4, loads.get());
+  }
+}
@@ -0,0 +1,93 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import com.uber.m3.tally.RootScopeBuilder;
+import com.uber.m3.tally.Scope;
+import com.uber.m3.util.Duration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.reporter.MicrometerClientStatsReporter;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+import io.temporal.payload.context.WorkflowSerializationContext;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MetricsPayloadCodecTest {
+
+  @Test
+  void reportsLatencyAndSizesPerDirection() throws Exception {
+    final MeterRegistry registry = new SimpleMeterRegistry();
+    final Scope scope =
+        new RootScopeBuilder()
+            .reporter(new MicrometerClientStatsReporter(registry))
+            .reportEvery(Duration.ofSeconds(60));
+    final MetricsPayloadCodec codec =
+        new MetricsPayloadCodec(new CompressionCodec(), scope, "zlib");
+    final List<Payload> payloads =
+        Collections.singletonList(
+            Payload.newBuilder()
+                .setData(ByteString.copyFromUtf8("verbose json ".repeat(1000)))
+                .build());
+
+    codec.decode(codec.encode(payloads));
+    // counters and gauges are buffered until the scope reports
+    scope.close();
+
+    final Tags encode = Tags.of("codec", "zlib", "direction", "encode");
+    final Tags decode = Tags.of("codec", "zlib", "direction", "decode");
+    Assertions.assertEquals(
+        1, registry.get(MetricsPayloadCodec.LATENCY).tags(encode).timer().count());
+    Assertions.assertEquals(
+        1, registry.get(MetricsPayloadCodec.LATENCY).tags(decode).timer().count());
+    final double in = registry.get(MetricsPayloadCodec.BYTES_IN).tags(encode).counter().count();
+    final double out = registry.get(MetricsPayloadCodec.BYTES_OUT).tags(encode).counter().count();
+    Assertions.assertEquals(payloads.get(0).getSerializedSize(), in);
+    Assertions.assertTrue(out < in / 10);
+    Assertions.assertEquals(
+        out / in, registry.get(MetricsPayloadCodec.SIZE_RATIO).tags(encode).gauge().value(), 1e-9);
+    Assertions.assertEquals(
+        in / out, registry.get(MetricsPayloadCodec.SIZE_RATIO).tags(decode).gauge().value(), 1e-9);
+  }
+
+  @Test
+  void timesFailedCallsOfContextCodecs() throws Exception {
+    final MeterRegistry registry = new SimpleMeterRegistry();
+    final Scope scope =
+        new RootScopeBuilder()
+            .reporter(new MicrometerClientStatsReporter(registry))
+            .reportEvery(Duration.ofSeconds(60));
+    final PayloadCodec failing =
+        new PayloadCodec() {
+          @Override
+          public List<Payload> encode(List<Payload> payloads) {
+            throw new PayloadCodecException("cannot encode");
+          }
+
+          @Override
+          public List<Payload> decode(List<Payload> payloads) {
+            return payloads;
+          }
+        };
+    final PayloadCodec codec =
+        new MetricsPayloadCodec(failing, scope, "failing")
+            .withContext(new WorkflowSerializationContext("default", "workflow-1"));
+
+    Assertions.assertThrows(
+        PayloadCodecException.class,
+        () -> codec.encode(Collections.singletonList(Payload.getDefaultInstance())));
+    scope.close();
+
+    Assertions.assertEquals(
+        1,
+        registry
+            .get(MetricsPayloadCodec.LATENCY)
+            .tags(Tags.of("codec", "failing", "direction", "encode"))
+            .timer()
+            .count());
+  }
+}
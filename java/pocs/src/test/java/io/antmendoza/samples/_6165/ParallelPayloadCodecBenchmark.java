@@ -0,0 +1,70 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding a list of payloads through {@link CryptCodec} inline and fanned out by {@link
+ * ParallelPayloadCodec}, to find the list size and payload size where forking starts to pay off.
+ * Both thresholds are zero here so that every list is forked.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main ParallelPayloadCodecBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelPayloadCodecBenchmark {
+
+  @Param({"2", "4", "16", "64"})
+  public int payloads;
+
+  @Param({"256", "4096", "65536"})
+  public int payloadBytes;
+
+  private CryptCodec inline;
+  private ParallelPayloadCodec parallel;
+  private List<Payload> plain;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random(42);
+    plain = new ArrayList<>(payloads);
+    for (int i = 0; i < payloads; i++) {
+      final byte[] data = new byte[payloadBytes];
+      random.nextBytes(data);
+      plain.add(Payload.newBuilder().setData(ByteString.copyFrom(data)).build());
+    }
+    inline = new CryptCodec();
+    parallel = new ParallelPayloadCodec(inline, ForkJoinPool.commonPool(), 0, 0);
+  }
+
+  @Benchmark
+  public List<Payload> inline() {
+    return inline.encode(plain);
+  }
+
+  @Benchmark
+  public List<Payload> parallel() {
+    return parallel.encode(plain);
+  }
+}
@@ -0,0 +1,159 @@
+package io.antmendoza.samples._6165;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+import io.temporal.payload.context.SerializationContext;
+import io.temporal.payload.context.WorkflowSerializationContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ParallelPayloadCodecTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @AfterEach
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  private static List<Payload> payloads(int count) {
+    final List<Payload> payloads = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      payloads.add(Payload.newBuilder().setData(ByteString.copyFromUtf8("payload-" + i)).build());
+    }
+    return payloads;
+  }
+
+  /** Upper cases the payload data and records the threads it ran on. */
+  private static class RecordingCodec implements PayloadCodec {
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public List<Payload> encode(List<Payload> payloads) {
+      threads.add(Thread.currentThread());
+      return payloads.stream()
+          .map(
+              p -> {
+                if (p.getData().toStringUtf8().equals("fail")) {
+                  throw new PayloadCodecException("cannot encode");
+                }
+                return p.toBuilder()
+                    .setData(ByteString.copyFromUtf8(p.getData().toStringUtf8().toUpperCase()))
+                    .build();
+              })
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Payload> decode(List<Payload> payloads) {
+      return payloads;
+    }
+  }
+
+  @Test
+  void smallListsRunOnTheCallingThread() {
+    final RecordingCodec delegate = new RecordingCodec();
+    final ParallelPayloadCodec codec = new ParallelPayloadCodec(delegate, pool, 4, 1 << 20);
+
+    codec.encode(payloads(3));
+
+    Assertions.assertEquals(Set.of(Thread.currentThread()), delegate.threads);
+  }
+
+  @Test
+  void manySmallPayloadsRunOnTheCallingThread() {
+    final RecordingCodec delegate = new RecordingCodec();
+    final ParallelPayloadCodec codec = new ParallelPayloadCodec(delegate, pool, 4, 1 << 20);
+
+    codec.encode(payloads(100));
+
+    Assertions.assertEquals(Set.of(Thread.currentThread()), delegate.threads);
+  }
+
+  @Test
+  void largeListsKeepTheirOrder() {
+    final RecordingCodec delegate = new RecordingCodec();
+    final ParallelPayloadCodec codec = new ParallelPayloadCodec(delegate, pool, 4, 10);
+
+    final List<Payload> encoded = codec.encode(payloads(100));
+
+    Assertions.assertFalse(delegate.threads.contains(Thread.currentThread()));
+    for (int i = 0; i < encoded.size(); i++) {
+      Assertions.assertEquals("PAYLOAD-" + i, encoded.get(i).getData().toStringUtf8());
+    }
+  }
+
+  @Test
+  void bigPayloadsRunInParallel() {
+    final RecordingCodec delegate = new RecordingCodec();
+    final ParallelPayloadCodec codec = new ParallelPayloadCodec(delegate, pool, 2, 10);
+
+    codec.encode(payloads(2));
+
+    Assertions.assertFalse(delegate.threads.contains(Thread.currentThread()));
+  }
+
+  @Test
+  void failuresReachTheCaller() {
+    final ParallelPayloadCodec codec = new ParallelPayloadCodec(new RecordingCodec(), pool, 2, 0);
+    final List<Payload> payloads = payloads(3);
+    payloads.set(1, Payload.newBuilder().setData(ByteString.copyFromUtf8("fail")).build());
+
+    Assertions.assertThrows(PayloadCodecException.class, () -> codec.encode(payloads));
+  }
+
+  @Test
+  void roundTripsThroughCryptCodec() {
+    final ParallelPayloadCodec codec = new ParallelPayloadCodec(new CryptCodec(), pool, 2, 0);
+    final List<Payload> payloads = payloads(50);
+
+    Assertions.assertEquals(payloads, codec.decode(codec.encode(payloads)));
+  }
+
+  @Test
+  void forwardsTheSerializationContext() {
+    final PayloadCodec codec =
+        new ParallelPayloadCodec(new WorkflowIdCodec(null), pool, 2, 0)
+            .withContext(new WorkflowSerializationContext("default", "workflow-1"));
+
+    for (Payload payload : codec.encode(payloads(4))) {
+      Assertions.assertEquals("workflow-1", payload.getData().toStringUtf8());
+    }
+  }
+
+  /** Replaces the payload data with the workflow id of its context. */
+  private static class WorkflowIdCodec implements PayloadCodec {
+    private final WorkflowSerializationContext context;
+
+    private WorkflowIdCodec(WorkflowSerializationContext context) {
+      this.context = context;
+    }
+
+    @Override
+    public PayloadCodec withContext(SerializationContext context) {
+      return new WorkflowIdCodec((WorkflowSerializationContext) context);
+    }
+
+    @Override
+    public List<Payload> encode(List<Payload> payloads) {
+      final String workflowId = context == null ? "none" : context.getWorkflowId();
+      return payloads.stream()
+          .map(p -> p.toBuilder().setData(ByteString.copyFromUtf8(workflowId)).build())
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Payload> decode(List<Payload> payloads) {
+      return payloads;
+    }
+  }
+}
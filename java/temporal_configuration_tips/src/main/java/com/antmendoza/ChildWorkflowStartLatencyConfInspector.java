@@ -0,0 +1,55 @@
+package com.antmendoza;
+
+import com.antmendoza.inspector.ConfigurationInspector;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.loader.ChildWorkflowData;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Time between the parent initiating a child workflow and the child being started. Reports the
+ * slowest start of the workflow, the configured value of the tip is the threshold.
+ */
+public class ChildWorkflowStartLatencyConfInspector implements ConfigurationInspector {
+
+  private final Duration threshold;
+
+  public ChildWorkflowStartLatencyConfInspector() {
+    this(Duration.ofSeconds(1));
+  }
+
+  public ChildWorkflowStartLatencyConfInspector(final Duration threshold) {
+    this.threshold = threshold;
+  }
+
+  @Override
+  public List<Tip> inspectChildWorkflows(final List<ChildWorkflowData> childWorkflows) {
+
+    ChildWorkflowData worst = null;
+    int slow = 0;
+    for (final ChildWorkflowData cw : childWorkflows) {
+      if (cw.isStarted() && cw.startLatencyNanos() > threshold.toNanos()) {
+        slow++;
+        if (worst == null || cw.startLatencyNanos() > worst.startLatencyNanos()) {
+          worst = cw;
+        }
+      }
+    }
+
+    if (worst == null) {
+      return List.of();
+    }
+
+    return List.of(
+        new Tip(
+            worst.entityDescription(),
+            Tip.ConfigurationProperty.ChildWorkflowStart,
+            String.format(
+                "%d of %d child workflows took more than %s to start."
+                    + " Check the load of the Temporal service, and consider starting children"
+                    + " in smaller batches",
+                slow, childWorkflows.size(), threshold),
+            threshold,
+            worst.startLatency()));
+  }
+}
@@ -1,24 +1,170 @@
 package com.antmendoza;
 
 import com.antmendoza.inspector.ConfigurationInspectorResult;
+import com.antmendoza.inspector.CsvTipSink;
+import com.antmendoza.inspector.FleetConfigurationInspector;
+import com.antmendoza.inspector.JsonLinesTipSink;
+import com.antmendoza.inspector.TipSink;
+import com.antmendoza.inspector.TipSummary;
 import com.antmendoza.inspector.WorkflowConfigurationInspector;
-import com.antmendoza.loader.HistoryLoaderFromFile;
-import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import com.antmendoza.loader.HistoryCache;
+import com.antmendoza.loader.HistoryLoaderFromDir;
+import com.antmendoza.loader.HistoryLoaderFromService;
+import com.antmendoza.loader.StreamingHistoryLoaderFromFile;
+import com.antmendoza.replay.ParallelReplayChecker;
+import com.antmendoza.replay.ReplayCheckResult;
+import com.antmendoza.replay.ReplayCostEstimator;
+import com.antmendoza.stats.HistorySizeStats;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.serviceclient.WorkflowServiceStubs;
+import io.temporal.serviceclient.WorkflowServiceStubsOptions;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 public class Main {
 
+    /**
+     * Usage: {@code Main [--cache <file>] [history file | directory] [threads]
+     * [tips.jsonl | tips.csv]}. Directories are analyzed in parallel, by default with one thread
+     * per available processor, and also get tips based on the latencies observed across all their
+     * histories. With {@code --cache}, the data extracted from a directory is cached in the given
+     * file, so later runs only parse new or changed files; a cache that can't be written only
+     * prints a warning. With a tips file, tips are written to it as they are produced and only a
+     * summary of the identical tips, ranked by wasted capacity, is printed.
+     *
+     * <p>{@code Main --service <host:port> <namespace> [query] [threads]} analyzes the executions
+     * matching the visibility query straight from the Temporal frontend.
+     *
+     * <p>{@code Main --history-size <directory> [threads]} measures events and payload bytes per
+     * event type of each workflow type, and recommends when to continue as new.
+     *
+     * <p>{@code Main --replay-cost <directory> <workflow implementation class>...} replays every
+     * history with the given implementations and ranks workflow types by what a cache miss costs.
+     *
+     * <p>{@code Main --check-replay <directory> <threads> <workflow implementation class>...}
+     * replays every history in parallel and groups non deterministic failures by site. Exits with
+     * 1 if any history failed to replay.
+     */
     public static void main(String[] args) {
 
-        final Path path = Path.of("src/main/resources", "4eb9c3ba-a113-4b12-b21c-63dd450671c2.json");
+        Path cacheFile = null;
+        if (args.length > 1 && args[0].equals("--cache")) {
+            cacheFile = Path.of(args[1]);
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+
+        if (args.length > 1 && args[0].equals("--history-size")) {
+            final int threads = args.length > 2
+                    ? Integer.parseInt(args[2])
+                    : Runtime.getRuntime().availableProcessors();
+            System.out.println(new HistoryLoaderFromDir(Path.of(args[1]))
+                    .readSizes(threads, HistorySizeStats.collector()));
+            System.exit(0);
+        }
+
+        if (args.length > 2 && args[0].equals("--replay-cost")) {
+            try (ReplayCostEstimator estimator =
+                         new ReplayCostEstimator(classes(args, 2))) {
+                System.out.println(estimator.replay(Path.of(args[1]), 10));
+            }
+            System.exit(0);
+        }
+
+        if (args.length > 3 && args[0].equals("--check-replay")) {
+            final ReplayCheckResult result;
+            try (ParallelReplayChecker checker = new ParallelReplayChecker(
+                    Integer.parseInt(args[2]), classes(args, 3))) {
+                result = checker.check(Path.of(args[1]));
+            }
+            System.out.println(result);
+            System.exit(result.isDeterministic() ? 0 : 1);
+        }
+
+        if (args.length > 0 && args[0].equals("--service")) {
+            final WorkflowClient client = WorkflowClient.newInstance(
+                    WorkflowServiceStubs.newServiceStubs(
+                            WorkflowServiceStubsOptions.newBuilder().setTarget(args[1]).build()),
+                    WorkflowClientOptions.newBuilder().setNamespace(args[2]).build());
+            final int threads = args.length > 4 ? Integer.parseInt(args[4]) : 8;
+            print(new HistoryLoaderFromService(client, args.length > 3 ? args[3] : "")
+                    .read(threads, new FleetConfigurationInspector().collector()));
+            System.exit(0);
+        }
+
+        final Path path = args.length > 0
+                ? Path.of(args[0])
+                : Path.of("src/main/resources", "4eb9c3ba-a113-4b12-b21c-63dd450671c2.json");
         System.out.println(path.toAbsolutePath());
 
-        final ConfigurationInspectorResult result =
-                new WorkflowConfigurationInspector(
-                        new WorkflowExecutionHistoryData(new HistoryLoaderFromFile(path).read()))
-                        .feedback();
+        final ConfigurationInspectorResult result;
+        if (Files.isDirectory(path)) {
+            final int threads = args.length > 1
+                    ? Integer.parseInt(args[1])
+                    : Runtime.getRuntime().availableProcessors();
+            final TipSummary summary = args.length > 2 ? new TipSummary() : null;
+            try (HistoryCache cache = cacheFile != null ? HistoryCache.open(cacheFile) : null;
+                 TipSink sink = summary != null
+                         ? TipSink.tee(tipFileSink(Path.of(args[2])), summary)
+                         : null) {
+                final HistoryLoaderFromDir loader = new HistoryLoaderFromDir(path);
+                final FleetConfigurationInspector inspector = new FleetConfigurationInspector();
+                final var collector = sink != null
+                        ? inspector.collector(sink)
+                        : inspector.collector();
+                result = cache != null
+                        ? loader.read(threads, collector, cache)
+                        : loader.read(threads, collector);
+                if (cache != null) {
+                    System.out.println(cache.hits() + " histories from cache, "
+                            + cache.misses() + " parsed");
+                    if (cache.writeFailure() != null) {
+                        // the analysis is complete, only the next run will parse everything again
+                        System.err.println("Could not write " + cacheFile + ": "
+                                + cache.writeFailure());
+                    }
+                }
+            }
+            if (summary != null) {
+                System.out.println(summary);
+            }
+        } else {
+            result = new WorkflowConfigurationInspector(
+                    new StreamingHistoryLoaderFromFile(path).read())
+                    .feedback();
+        }
+
+        print(result);
+    }
+
+    private static Class<?>[] classes(final String[] args, final int from) {
+        final Class<?>[] classes = new Class<?>[args.length - from];
+        for (int i = from; i < args.length; i++) {
+            try {
+                classes[i - from] = Class.forName(args[i]);
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return classes;
+    }
+
+    private static TipSink tipFileSink(final Path file) {
+        try {
+            final Writer writer = Files.newBufferedWriter(file);
+            return file.toString().endsWith(".csv")
+                    ? new CsvTipSink(writer)
+                    : new JsonLinesTipSink(writer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
+    private static void print(final ConfigurationInspectorResult result) {
         System.out.println("------------------");
         System.out.println("Result:");
         System.out.println(result);
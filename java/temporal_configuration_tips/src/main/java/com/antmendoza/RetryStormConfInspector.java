@@ -0,0 +1,107 @@
+package com.antmendoza;
+
+import com.antmendoza.inspector.AggregatedConfigurationInspector;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.stats.ActivityLatencyStats;
+import io.temporal.api.common.v1.RetryPolicy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds activity types that retry forever with a short maximum interval, and activity types whose
+ * attempts fail with heartbeat timeouts.
+ *
+ * <p>A RetryOptions with maximumAttempts 0 and a short maximumInterval keeps every failing
+ * execution polling the workers every maximumInterval until its scheduleToClose timeout, if any.
+ * When a downstream dependency is down, every execution in flight turns into a retry storm.
+ */
+public class RetryStormConfInspector implements AggregatedConfigurationInspector {
+
+  private final Duration maximumIntervalThreshold;
+
+  public RetryStormConfInspector() {
+    this(Duration.ofMinutes(1));
+  }
+
+  /**
+   * @param maximumIntervalThreshold maximumInterval below which retrying without maximum attempts
+   *     is a retry storm
+   */
+  public RetryStormConfInspector(final Duration maximumIntervalThreshold) {
+    this.maximumIntervalThreshold = maximumIntervalThreshold;
+  }
+
+  @Override
+  public List<Tip> inspectActivityLatencies(final ActivityLatencyStats activityLatencyStats) {
+
+    final List<Tip> tips = new ArrayList<>();
+
+    activityLatencyStats
+        .getRetries()
+        .forEach(
+            (key, retries) -> {
+              final String evidence =
+                  String.format(
+                      "%d of %d executions were retried, %.1f attempts per execution (max %d),"
+                          + " %s between attempts on average.",
+                      retries.retriedExecutions(),
+                      retries.executions(),
+                      retries.meanAttempts(),
+                      retries.maxAttempt(),
+                      retries.meanTimeBetweenAttempts());
+
+              final RetryPolicy retryPolicy = retries.unlimitedRetryPolicy();
+              if (retryPolicy != null && retries.retriedExecutions() > 0) {
+                final Duration maximumInterval =
+                    Duration.ofSeconds(
+                        retryPolicy.getMaximumInterval().getSeconds(),
+                        retryPolicy.getMaximumInterval().getNanos());
+                if (maximumInterval.compareTo(maximumIntervalThreshold) < 0) {
+                  tips.add(
+                      new Tip(
+                          key.toString(),
+                          Tip.ConfigurationProperty.ActivityRetryPolicy,
+                          key.activityType(),
+                          key.taskQueue(),
+                          evidence
+                              + String.format(
+                                  " RetryOptions has maximumAttempts=0 and maximumInterval=%s:"
+                                      + " a failing execution retries %d times per hour until it"
+                                      + " succeeds or times out. Set maximumAttempts, a"
+                                      + " maximumInterval of at least %s, or mark non retryable"
+                                      + " errors",
+                                  maximumInterval,
+                                  Duration.ofHours(1).toNanos()
+                                      / Math.max(1, maximumInterval.toNanos()),
+                                  maximumIntervalThreshold),
+                          maximumInterval.toNanos(),
+                          retries.meanTimeBetweenAttempts().toNanos()));
+                }
+              }
+
+              if (retries.heartbeatTimeoutFailures() > 0) {
+                final Duration heartbeatTimeout = retries.heartbeatTimeoutConfigValue();
+                tips.add(
+                    new Tip(
+                        key.toString(),
+                        Tip.ConfigurationProperty.ActivityHeartbeatTimeout,
+                        key.activityType(),
+                        key.taskQueue(),
+                        evidence
+                            + String.format(
+                                " %d attempts failed with a heartbeat timeout of %s, each one"
+                                    + " idle until the timeout fired. Heartbeat more often than"
+                                    + " heartbeatTimeout, or raise it if the activity blocks"
+                                    + " between heartbeats",
+                                retries.heartbeatTimeoutFailures(), heartbeatTimeout),
+                        heartbeatTimeout.toNanos(),
+                        heartbeatTimeout
+                            .multipliedBy(retries.heartbeatTimeoutFailures())
+                            .toNanos()));
+              }
+            });
+
+    return tips;
+  }
+}
@@ -3,28 +3,34 @@ package com.antmendoza;
 import com.antmendoza.inspector.ConfigurationInspector;
 import com.antmendoza.inspector.Tip;
 import com.antmendoza.loader.ActivityData;
+import com.antmendoza.loader.ActivityDataStore;
 import java.util.ArrayList;
 import java.util.List;
 
 public class StartToCloseLatencyConfInspector implements ConfigurationInspector {
   @Override
-  public List<Tip> inspectActivities(final List<ActivityData> activityDataList) {
+  public List<Tip> inspectActivities(final ActivityDataStore activityDataStore) {
 
     final List<Tip> tips = new ArrayList<>();
 
-    activityDataList.forEach(
-        ac -> {
-          if (ac.startToCloseConfigValue().getSeconds()
-              > ac.startToCloseLatency().getSeconds() * 1.2)
-            tips.add(
-                new Tip(
-                    ac.entityDescription(),
-                    Tip.ConfigurationProperty.ActivityStartToClose,
-                    "activityStartToClose configured valued is too high."
-                        + " Set the value to the maximum time the activity execution can take",
-                    ac.startToCloseConfigValue(),
-                    ac.startToCloseLatency()));
-        });
+    for (int row = 0; row < activityDataStore.size(); row++) {
+      if (activityDataStore.isClosed(row)
+          && activityDataStore.isStarted(row)
+          && activityDataStore.startToCloseTimeoutNanos(row)
+              > activityDataStore.startToCloseNanos(row) * 1.2) {
+        final ActivityData ac = activityDataStore.get(row);
+        tips.add(
+            new Tip(
+                ac.entityDescription(),
+                Tip.ConfigurationProperty.ActivityStartToClose,
+                ac.activityType(),
+                ac.taskQueue(),
+                "activityStartToClose configured valued is too high."
+                    + " Set the value to the maximum time the activity execution can take",
+                ac.startToCloseTimeoutNanos(),
+                ac.startToCloseNanos()));
+      }
+    }
 
     return tips;
   }
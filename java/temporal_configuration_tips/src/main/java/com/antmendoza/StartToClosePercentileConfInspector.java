@@ -0,0 +1,73 @@
+package com.antmendoza;
+
+import com.antmendoza.inspector.AggregatedConfigurationInspector;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.stats.ActivityLatency;
+import com.antmendoza.stats.ActivityLatencyStats;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the configured startToClose timeout of each activity type with the latency observed
+ * across all the inspected histories.
+ */
+public class StartToClosePercentileConfInspector implements AggregatedConfigurationInspector {
+
+  static final double PERCENTILE = 99.9;
+  static final double FACTOR = 10;
+
+  private final long minSamples;
+
+  public StartToClosePercentileConfInspector() {
+    this(100);
+  }
+
+  /** @param minSamples executions needed before the percentiles are trusted */
+  public StartToClosePercentileConfInspector(final long minSamples) {
+    this.minSamples = minSamples;
+  }
+
+  @Override
+  public List<Tip> inspectActivityLatencies(final ActivityLatencyStats activityLatencyStats) {
+
+    final List<Tip> tips = new ArrayList<>();
+
+    activityLatencyStats
+        .getLatencies()
+        .forEach(
+            (key, latency) -> {
+              if (latency.count() < minSamples) {
+                return;
+              }
+
+              final Duration configured = latency.startToCloseConfigValue();
+              final Duration p999 = latency.startToClose(PERCENTILE);
+              // avoid dividing by 0 for sub microsecond activities
+              final double ratio = (double) configured.toNanos() / Math.max(1_000, p999.toNanos());
+
+              if (ratio > FACTOR)
+                tips.add(
+                    new Tip(
+                        key.toString(),
+                        Tip.ConfigurationProperty.ActivityStartToClose,
+                        key.activityType(),
+                        key.taskQueue(),
+                        String.format(
+                            "activityStartToClose is %.0fx the observed p%s over %d executions"
+                                + " (p50=%s, p99=%s, max=%s)."
+                                + " Set the value to the maximum time the activity execution"
+                                + " can take",
+                            ratio,
+                            PERCENTILE,
+                            latency.count(),
+                            latency.startToClose(50),
+                            latency.startToClose(99),
+                            latency.maxStartToClose()),
+                        configured.toNanos(),
+                        p999.toNanos()));
+            });
+
+    return tips;
+  }
+}
@@ -0,0 +1,55 @@
+package com.antmendoza;
+
+import com.antmendoza.inspector.ConfigurationInspector;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.loader.TimerData;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Timers that fire later than their configured duration. Reports the timer of the workflow with
+ * the biggest drift, the configured value of the tip is the timer duration.
+ */
+public class TimerDriftConfInspector implements ConfigurationInspector {
+
+  private final Duration threshold;
+
+  public TimerDriftConfInspector() {
+    this(Duration.ofSeconds(1));
+  }
+
+  public TimerDriftConfInspector(final Duration threshold) {
+    this.threshold = threshold;
+  }
+
+  @Override
+  public List<Tip> inspectTimers(final List<TimerData> timers) {
+
+    TimerData worst = null;
+    int late = 0;
+    for (final TimerData timer : timers) {
+      if (timer.isFired() && timer.driftNanos() > threshold.toNanos()) {
+        late++;
+        if (worst == null || timer.driftNanos() > worst.driftNanos()) {
+          worst = timer;
+        }
+      }
+    }
+
+    if (worst == null) {
+      return List.of();
+    }
+
+    return List.of(
+        new Tip(
+            worst.entityDescription(),
+            Tip.ConfigurationProperty.TimerDrift,
+            String.format(
+                "%d of %d timers fired more than %s late (drift=%s)."
+                    + " The timer queue of the Temporal service is lagging,"
+                    + " don't rely on timers for sub second precision",
+                late, timers.size(), threshold, worst.drift()),
+            worst.startToFireConfigValue(),
+            worst.startToFireLatency()));
+  }
+}
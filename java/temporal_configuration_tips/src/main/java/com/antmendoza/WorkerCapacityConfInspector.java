@@ -0,0 +1,174 @@
+package com.antmendoza;
+
+import com.antmendoza.inspector.AggregatedConfigurationInspector;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.stats.ActivityLatencyStats;
+import com.antmendoza.stats.TaskQueueLoad;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the periods in which activities waited in a task queue, the windows whose p99 schedule to
+ * start latency is above a threshold, and suggests WorkerOptions values for the workers polling the
+ * queue.
+ *
+ * <p>If the workers were executing as many activities as they ever did while tasks waited, they
+ * were out of slots, and the suggested maxConcurrentActivityExecutionSize (for all the workers of
+ * the queue) is the concurrency needed to serve the peak arrival rate, by Little's law. If they had
+ * free slots, tasks were not being polled fast enough: the pollers, assumed to be the SDK default
+ * unless told otherwise, are scaled by how much faster tasks arrived than the workers drained them,
+ * never beyond the peak concurrency the workers reached.
+ *
+ * <p>The capacity wasted is the slots missing, or the slots left idle, for the saturated windows.
+ */
+public class WorkerCapacityConfInspector implements AggregatedConfigurationInspector {
+
+  static final double PERCENTILE = 99;
+  // saturated windows running at least this fraction of the peak concurrency were out of slots
+  static final double SLOTS_SATURATION = 0.9;
+  static final double HEADROOM = 1.2;
+  // WorkerOptions default maxConcurrentActivityTaskPollers
+  static final int DEFAULT_ACTIVITY_TASK_POLLERS = 5;
+
+  private final Duration threshold;
+  private final long minSamples;
+  private final int activityTaskPollers;
+
+  public WorkerCapacityConfInspector() {
+    this(Duration.ofSeconds(1), 20);
+  }
+
+  /**
+   * @param threshold p99 schedule to start latency above which a window is saturated
+   * @param minSamples activities a window needs before its percentiles are trusted
+   */
+  public WorkerCapacityConfInspector(final Duration threshold, final long minSamples) {
+    this(threshold, minSamples, DEFAULT_ACTIVITY_TASK_POLLERS);
+  }
+
+  /** @param activityTaskPollers maxConcurrentActivityTaskPollers the workers are configured with */
+  public WorkerCapacityConfInspector(
+      final Duration threshold, final long minSamples, final int activityTaskPollers) {
+    this.threshold = threshold;
+    this.minSamples = minSamples;
+    this.activityTaskPollers = activityTaskPollers;
+  }
+
+  @Override
+  public List<Tip> inspectActivityLatencies(final ActivityLatencyStats activityLatencyStats) {
+
+    final List<Tip> tips = new ArrayList<>();
+
+    activityLatencyStats
+        .getTaskQueueLoads()
+        .forEach(
+            (taskQueue, load) -> {
+              final List<TaskQueueLoad.Window> windows = load.windows();
+
+              double peakConcurrency = 0;
+              TaskQueueLoad.Window worst = null;
+              TaskQueueLoad.Window busiest = null;
+              int saturated = 0;
+              for (final TaskQueueLoad.Window window : windows) {
+                peakConcurrency = Math.max(peakConcurrency, window.concurrency());
+                final Duration scheduleToStart = window.scheduleToStart(PERCENTILE);
+                if (window.scheduled() < minSamples || scheduleToStart.compareTo(threshold) <= 0) {
+                  continue;
+                }
+                saturated++;
+                if (worst == null
+                    || scheduleToStart.compareTo(worst.scheduleToStart(PERCENTILE)) > 0) {
+                  worst = window;
+                }
+                if (busiest == null || window.scheduled() > busiest.scheduled()) {
+                  busiest = window;
+                }
+              }
+
+              if (worst == null) {
+                return;
+              }
+
+              final double saturatedConcurrency = worst.concurrency();
+              final String evidence =
+                  String.format(
+                      "%d of %d windows of %s had p%s schedule to start above %s."
+                          + " Worst window at %s: %d activities, p50=%s, p99=%s, max=%s,"
+                          + " %.1f concurrent executions (peak %.1f).",
+                      saturated,
+                      windows.size(),
+                      load.windowSize(),
+                      PERCENTILE,
+                      threshold,
+                      worst.start(),
+                      worst.scheduled(),
+                      worst.scheduleToStart(50),
+                      worst.scheduleToStart(99),
+                      worst.scheduleToStart(100),
+                      saturatedConcurrency,
+                      peakConcurrency);
+
+              final long saturatedNanos = saturated * load.windowSize().toNanos();
+              if (saturatedConcurrency >= peakConcurrency * SLOTS_SATURATION) {
+                // Little's law: executions in flight = arrival rate * execution time
+                final double arrivalsPerNano =
+                    (double) busiest.scheduled() / load.windowSize().toNanos();
+                final long needed =
+                    Math.max(
+                        (long)
+                            Math.ceil(
+                                arrivalsPerNano * load.meanStartToClose().toNanos() * HEADROOM),
+                        (long) Math.ceil(peakConcurrency) + 1);
+                tips.add(
+                    new Tip(
+                        "TaskQueue{name='" + taskQueue + "'}",
+                        Tip.ConfigurationProperty.WorkerActivityExecutionSize,
+                        "",
+                        taskQueue,
+                        evidence
+                            + String.format(
+                                " Workers were out of activity slots: set"
+                                    + " maxConcurrentActivityExecutionSize to at least %d in"
+                                    + " total across the workers of the task queue, or add"
+                                    + " workers",
+                                needed),
+                        threshold.toNanos(),
+                        worst.scheduleToStart(PERCENTILE).toNanos(),
+                        (long) ((needed - saturatedConcurrency) * saturatedNanos)));
+              } else {
+                // tasks arrived faster than the pollers handed them to the free slots
+                final double arrivalsPerNano =
+                    (double) worst.scheduled() / load.windowSize().toNanos();
+                final double drainedPerNano =
+                    saturatedConcurrency / Math.max(1, load.meanStartToClose().toNanos());
+                final long pollers =
+                    suggestedPollers(arrivalsPerNano / drainedPerNano, peakConcurrency);
+                tips.add(
+                    new Tip(
+                        "TaskQueue{name='" + taskQueue + "'}",
+                        Tip.ConfigurationProperty.WorkerActivityPollers,
+                        "",
+                        taskQueue,
+                        evidence
+                            + String.format(
+                                " Workers had free activity slots while tasks waited: set"
+                                    + " maxConcurrentActivityTaskPollers to %d (from %d) on each"
+                                    + " worker of the task queue",
+                                pollers, activityTaskPollers),
+                        threshold.toNanos(),
+                        worst.scheduleToStart(PERCENTILE).toNanos(),
+                        (long) ((peakConcurrency - saturatedConcurrency) * saturatedNanos)));
+              }
+            });
+
+    return tips;
+  }
+
+  // more pollers than slots the workers ever used don't drain the queue faster
+  private long suggestedPollers(final double arrivalsPerDrained, final double peakConcurrency) {
+    final long scaled = (long) Math.ceil(activityTaskPollers * arrivalsPerDrained * HEADROOM);
+    final long atLeast = activityTaskPollers + 1;
+    return Math.max(atLeast, Math.min(scaled, (long) Math.ceil(peakConcurrency)));
+  }
+}
@@ -0,0 +1,52 @@
+package com.antmendoza;
+
+import com.antmendoza.inspector.ConfigurationInspector;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.loader.WorkflowTaskData;
+import io.temporal.api.enums.v1.EventType;
+import java.util.List;
+
+/**
+ * Workflow tasks should take milliseconds. Tasks that take a big part of the workflow task timeout,
+ * or time out, usually run blocking code in the workflow thread. Reports the slowest task of the
+ * workflow.
+ */
+public class WorkflowTaskExecutionTimeConfInspector implements ConfigurationInspector {
+
+  static final double FRACTION_OF_TIMEOUT = 0.5;
+
+  @Override
+  public List<Tip> inspectWorkflowTasks(final List<WorkflowTaskData> workflowTasks) {
+
+    WorkflowTaskData worst = null;
+    int slow = 0;
+    for (final WorkflowTaskData wt : workflowTasks) {
+      if (wt.isStarted()
+          && wt.isClosed()
+          && (wt.finalEventType() == EventType.EVENT_TYPE_WORKFLOW_TASK_TIMED_OUT
+              || wt.startToCloseNanos() > wt.startToCloseTimeoutNanos() * FRACTION_OF_TIMEOUT)) {
+        slow++;
+        if (worst == null || wt.startToCloseNanos() > worst.startToCloseNanos()) {
+          worst = wt;
+        }
+      }
+    }
+
+    if (worst == null) {
+      return List.of();
+    }
+
+    return List.of(
+        new Tip(
+            worst.entityDescription(),
+            Tip.ConfigurationProperty.WorkflowTaskTimeout,
+            "",
+            worst.taskQueue(),
+            String.format(
+                "%d of %d workflow tasks took more than half of the workflowTaskTimeout."
+                    + " Move blocking or CPU intensive code from the workflow to activities",
+                slow, workflowTasks.size()),
+            worst.startToCloseTimeoutNanos(),
+            worst.startToCloseNanos()));
+  }
+}
@@ -0,0 +1,97 @@
+package com.antmendoza;
+
+import com.antmendoza.inspector.ConfigurationInspector;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.loader.WorkflowTaskData;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Workflow tasks that wait in the task queue mean there are not enough workflow workers, or
+ * pollers, to keep up with the load. Tasks that wait in a sticky queue were scheduled to the worker
+ * that cached the workflow, which was too busy to poll them: more workers don't help, that worker
+ * needs more workflow task slots. Reports the worst task of each kind, the configured value of the
+ * tip is the threshold.
+ */
+public class WorkflowTaskScheduleToStartConfInspector implements ConfigurationInspector {
+
+  private final Duration threshold;
+
+  public WorkflowTaskScheduleToStartConfInspector() {
+    this(Duration.ofSeconds(1));
+  }
+
+  public WorkflowTaskScheduleToStartConfInspector(final Duration threshold) {
+    this.threshold = threshold;
+  }
+
+  @Override
+  public List<Tip> inspectWorkflowTasks(final List<WorkflowTaskData> workflowTasks) {
+
+    final List<Tip> tips = new ArrayList<>();
+
+    final WorkflowTaskData worst = worst(workflowTasks, false);
+    if (worst != null) {
+      tips.add(
+          new Tip(
+              worst.entityDescription(),
+              Tip.ConfigurationProperty.WorkflowTaskPollers,
+              "",
+              worst.taskQueue(),
+              String.format(
+                  "%d of %d workflow tasks waited more than %s in task queue %s."
+                      + " Add workflow workers or increase maxConcurrentWorkflowTaskPollers",
+                  backlogged(workflowTasks, false),
+                  workflowTasks.size(),
+                  threshold,
+                  worst.taskQueue()),
+              threshold.toNanos(),
+              worst.scheduleToStartNanos()));
+    }
+
+    final WorkflowTaskData worstSticky = worst(workflowTasks, true);
+    if (worstSticky != null) {
+      tips.add(
+          new Tip(
+              worstSticky.entityDescription(),
+              Tip.ConfigurationProperty.WorkerWorkflowTaskExecutionSize,
+              "",
+              worstSticky.taskQueue(),
+              String.format(
+                  "%d of %d workflow tasks waited more than %s in the sticky queue of the worker"
+                      + " caching the workflow, task queue %s. The worker was busy: increase"
+                      + " maxConcurrentWorkflowTaskExecutionSize, or lower"
+                      + " stickyQueueScheduleToStartTimeout so tasks move to the task queue",
+                  backlogged(workflowTasks, true),
+                  workflowTasks.size(),
+                  threshold,
+                  worstSticky.taskQueue()),
+              threshold.toNanos(),
+              worstSticky.scheduleToStartNanos()));
+    }
+
+    return tips;
+  }
+
+  private boolean isBacklogged(final WorkflowTaskData wt, final boolean sticky) {
+    return wt.sticky() == sticky
+        && wt.isStarted()
+        && wt.scheduleToStartNanos() > threshold.toNanos();
+  }
+
+  private long backlogged(final List<WorkflowTaskData> workflowTasks, final boolean sticky) {
+    return workflowTasks.stream().filter(wt -> isBacklogged(wt, sticky)).count();
+  }
+
+  private WorkflowTaskData worst(final List<WorkflowTaskData> workflowTasks, final boolean sticky) {
+    WorkflowTaskData worst = null;
+    for (final WorkflowTaskData wt : workflowTasks) {
+      if (isBacklogged(wt, sticky)
+          && (worst == null || wt.scheduleToStartNanos() > worst.scheduleToStartNanos())) {
+        worst = wt;
+      }
+    }
+    return worst;
+  }
+}
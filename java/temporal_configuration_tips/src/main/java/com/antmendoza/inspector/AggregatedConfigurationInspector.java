@@ -0,0 +1,9 @@
+package com.antmendoza.inspector;
+
+import com.antmendoza.stats.ActivityLatencyStats;
+import java.util.List;
+
+/** Inspects statistics aggregated across many histories, instead of one history at a time. */
+public interface AggregatedConfigurationInspector {
+  List<Tip> inspectActivityLatencies(final ActivityLatencyStats activityLatencyStats);
+}
@@ -1,14 +1,31 @@
 package com.antmendoza.inspector;
 
-import com.antmendoza.loader.ActivityData;
+import com.antmendoza.loader.ActivityDataStore;
+import com.antmendoza.loader.ChildWorkflowData;
+import com.antmendoza.loader.TimerData;
+import com.antmendoza.loader.WorkflowTaskData;
 import java.util.List;
 
+/**
+ * Inspects the views built by {@link com.antmendoza.loader.WorkflowExecutionHistoryData} while
+ * reading the history events once. Implement the methods for the views the inspector is interested
+ * in, the others return no tips.
+ */
 public interface ConfigurationInspector {
-  List<Tip> inspectActivities(final List<ActivityData> activityDataList);
-//TODO
-//  List<Tip> inspectWorkflow
-//  List<Tip> inspectChilds
-//  List<Tip> inspectTimers
 
+  default List<Tip> inspectActivities(final ActivityDataStore activityDataStore) {
+    return List.of();
+  }
 
+  default List<Tip> inspectWorkflowTasks(final List<WorkflowTaskData> workflowTasks) {
+    return List.of();
+  }
+
+  default List<Tip> inspectChildWorkflows(final List<ChildWorkflowData> childWorkflows) {
+    return List.of();
+  }
+
+  default List<Tip> inspectTimers(final List<TimerData> timers) {
+    return List.of();
+  }
 }
@@ -1,18 +1,38 @@
 package com.antmendoza.inspector;
 
+import com.antmendoza.ChildWorkflowStartLatencyConfInspector;
+import com.antmendoza.RetryStormConfInspector;
 import com.antmendoza.StartToCloseLatencyConfInspector;
+import com.antmendoza.StartToClosePercentileConfInspector;
+import com.antmendoza.TimerDriftConfInspector;
+import com.antmendoza.WorkerCapacityConfInspector;
+import com.antmendoza.WorkflowTaskExecutionTimeConfInspector;
+import com.antmendoza.WorkflowTaskScheduleToStartConfInspector;
 import java.util.ArrayList;
 import java.util.List;
 
 public class ConfigurationInspectorFactory {
 
   private final List<ConfigurationInspector> configurationInspectors = new ArrayList<>();
+  private final List<AggregatedConfigurationInspector> aggregatedConfigurationInspectors =
+      new ArrayList<>();
 
   public ConfigurationInspectorFactory() {
     this.configurationInspectors.add(new StartToCloseLatencyConfInspector());
+    this.configurationInspectors.add(new WorkflowTaskScheduleToStartConfInspector());
+    this.configurationInspectors.add(new WorkflowTaskExecutionTimeConfInspector());
+    this.configurationInspectors.add(new ChildWorkflowStartLatencyConfInspector());
+    this.configurationInspectors.add(new TimerDriftConfInspector());
+    this.aggregatedConfigurationInspectors.add(new StartToClosePercentileConfInspector());
+    this.aggregatedConfigurationInspectors.add(new WorkerCapacityConfInspector());
+    this.aggregatedConfigurationInspectors.add(new RetryStormConfInspector());
   }
 
   public List<ConfigurationInspector> getConfigurationInspectors() {
     return configurationInspectors;
   }
+
+  public List<AggregatedConfigurationInspector> getAggregatedConfigurationInspectors() {
+    return aggregatedConfigurationInspectors;
+  }
 }
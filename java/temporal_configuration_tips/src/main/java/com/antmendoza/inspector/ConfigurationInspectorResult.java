@@ -3,25 +3,76 @@ package com.antmendoza.inspector;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Tips produced by the inspectors. By default they are kept in memory, with a {@link TipSink}
+ * they are only counted and handed to the sink as they are produced.
+ */
 public class ConfigurationInspectorResult {
 
-  private final List<Tip> tips = new ArrayList<>();
+  // null when tips go to a sink
+  private final List<Tip> tips;
+  private final TipSink sink;
+  private long count;
 
+  public ConfigurationInspectorResult() {
+    this.tips = new ArrayList<>();
+    this.sink = tips::add;
+  }
+
+  public ConfigurationInspectorResult(final TipSink sink) {
+    this.tips = null;
+    this.sink = sink;
+  }
+
+  /** @throws IllegalStateException if the tips were handed to a sink */
   public List<Tip> getTips() {
+    if (tips == null) {
+      throw new IllegalStateException("Tips were handed to a TipSink, they are not kept");
+    }
     return tips;
   }
 
+  public long getTipCount() {
+    return count;
+  }
+
   public void addTip(final List<Tip> tips) {
-    this.tips.addAll(tips);
+    for (Tip tip : tips) {
+      sink.accept(tip);
+    }
+    count += tips.size();
+  }
+
+  /**
+   * Adds the tips of {@code other}, handing them to the sink of this result if it has one.
+   *
+   * @throws IllegalStateException if this result keeps its tips and {@code other} handed them to a
+   *     sink, they can't be recovered
+   */
+  public ConfigurationInspectorResult merge(final ConfigurationInspectorResult other) {
+    if (tips != null && other.tips == null) {
+      throw new IllegalStateException("Can't merge tips handed to a TipSink into kept tips");
+    }
+    if (other.tips != null) {
+      addTip(other.tips);
+    } else {
+      // already handed to the sink
+      count += other.count;
+    }
+    return this;
   }
 
   @Override
   public String toString() {
 
-    String tPrety = "";
+    if (tips == null) {
+      return "ConfigurationInspectorResult{" + "tipCount=" + count + '}';
+    }
+
+    final StringBuilder tPrety = new StringBuilder();
 
     for (Tip tip : tips) {
-      tPrety += " " + tip + System.lineSeparator();
+      tPrety.append(" ").append(tip).append(System.lineSeparator());
     }
 
     return "ConfigurationInspectorResult{" + "tips=" + System.lineSeparator() + tPrety + '}';
@@ -0,0 +1,70 @@
+package com.antmendoza.inspector;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/** Writes one RFC 4180 csv row per tip, after a header row, as soon as the tip is produced. */
+public class CsvTipSink implements TipSink {
+
+  static final String HEADER =
+      "configurationProperty,activityType,taskQueue,description,actionSuggested,"
+          + "configuredValueNanos,currentValueNanos";
+
+  private final Writer writer;
+  private final StringBuilder row = new StringBuilder();
+
+  public CsvTipSink(final Writer writer) {
+    this.writer = writer;
+    try {
+      writer.write(HEADER);
+      writer.write("\r\n");
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public synchronized void accept(final Tip tip) {
+    row.setLength(0);
+    row.append(tip.getConfigurationProperty().name()).append(',');
+    appendQuoted(tip.getActivityType()).append(',');
+    appendQuoted(tip.getTaskQueue()).append(',');
+    appendQuoted(tip.getDescription()).append(',');
+    appendQuoted(tip.getActionSuggested()).append(',');
+    row.append(tip.getConfiguredValueNanos()).append(',');
+    row.append(tip.getCurrentValueNanos()).append("\r\n");
+    try {
+      writer.append(row);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Flushes and closes the writer. */
+  @Override
+  public synchronized void close() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private StringBuilder appendQuoted(final String value) {
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return row.append(value);
+    }
+    row.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"') {
+        row.append('"');
+      }
+      row.append(c);
+    }
+    return row.append('"');
+  }
+}
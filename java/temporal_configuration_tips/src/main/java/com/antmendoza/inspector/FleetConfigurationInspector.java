@@ -0,0 +1,54 @@
+package com.antmendoza.inspector;
+
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import com.antmendoza.stats.ActivityLatencyStats;
+import java.util.List;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the inspectors to every history and, once all of them have been seen, the aggregated
+ * inspectors to the statistics built across them.
+ */
+public class FleetConfigurationInspector {
+
+  private final List<AggregatedConfigurationInspector> inspectorList;
+
+  public FleetConfigurationInspector() {
+    this(new ConfigurationInspectorFactory().getAggregatedConfigurationInspectors());
+  }
+
+  public FleetConfigurationInspector(final List<AggregatedConfigurationInspector> inspectorList) {
+    this.inspectorList = inspectorList;
+  }
+
+  public ConfigurationInspectorResult feedback(final ActivityLatencyStats activityLatencyStats) {
+
+    final ConfigurationInspectorResult configurationInspectorResult =
+        new ConfigurationInspectorResult();
+
+    this.inspectorList.forEach(
+        ad -> {
+          configurationInspectorResult.addTip(ad.inspectActivityLatencies(activityLatencyStats));
+        });
+
+    return configurationInspectorResult;
+  }
+
+  /** See {@link com.antmendoza.loader.HistoryLoaderFromDir#read(int, Collector)}. */
+  public Collector<WorkflowExecutionHistoryData, ?, ConfigurationInspectorResult> collector() {
+    return Collectors.teeing(
+        WorkflowConfigurationInspector.collector(),
+        ActivityLatencyStats.collector(),
+        (result, stats) -> result.merge(feedback(stats)));
+  }
+
+  /** Like {@link #collector()}, tips are handed to the sink instead of being kept. */
+  public Collector<WorkflowExecutionHistoryData, ?, ConfigurationInspectorResult> collector(
+      final TipSink sink) {
+    return Collectors.teeing(
+        WorkflowConfigurationInspector.collector(sink),
+        ActivityLatencyStats.collector(),
+        (result, stats) -> result.merge(feedback(stats)));
+  }
+}
@@ -0,0 +1,50 @@
+package com.antmendoza.inspector;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.Writer;
+
+/** Writes one json object per tip and line, as soon as the tip is produced. */
+public class JsonLinesTipSink implements TipSink {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory().setRootValueSeparator(null);
+
+  private final JsonGenerator generator;
+
+  public JsonLinesTipSink(final Writer writer) {
+    try {
+      this.generator = JSON_FACTORY.createGenerator(writer);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public synchronized void accept(final Tip tip) {
+    try {
+      generator.writeStartObject();
+      generator.writeStringField("configurationProperty", tip.getConfigurationProperty().name());
+      generator.writeStringField("activityType", tip.getActivityType());
+      generator.writeStringField("taskQueue", tip.getTaskQueue());
+      generator.writeStringField("description", tip.getDescription());
+      generator.writeStringField("actionSuggested", tip.getActionSuggested());
+      generator.writeNumberField("configuredValueNanos", tip.getConfiguredValueNanos());
+      generator.writeNumberField("currentValueNanos", tip.getCurrentValueNanos());
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Flushes and closes the writer. */
+  @Override
+  public synchronized void close() {
+    try {
+      generator.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -1,26 +1,122 @@
 package com.antmendoza.inspector;
 
+import java.time.Duration;
 import java.util.Objects;
 
+/**
+ * One suggestion. Values are kept as nanoseconds, the activity type and task queue the tip applies
+ * to are empty when it does not apply to one, see {@link TipSummary}.
+ *
+ * <p>Each tip estimates the worker capacity the current configuration wastes, in slot nanoseconds:
+ * how long execution slots are held, idle or missing because of it. By default it is derived from
+ * the values by {@link ConfigurationProperty#wastedSlotNanos(long, long)}, inspectors that know
+ * more pass it explicitly.
+ */
 public class Tip {
   private String description;
   private final ConfigurationProperty configurationProperty;
+  private final String activityType;
+  private final String taskQueue;
   private final String actionSuggested;
-  private final Object configuredValue;
-  private final Object currentValue;
+  private final long configuredValueNanos;
+  private final long currentValueNanos;
+  private final long wastedSlotNanos;
 
   public Tip(
       final String description,
       final ConfigurationProperty configurationProperty,
       final String actionSuggested,
-      final Object configuredValue,
-      final Object currentValue) {
+      final Duration configuredValue,
+      final Duration currentValue) {
+    this(
+        description,
+        configurationProperty,
+        "",
+        "",
+        actionSuggested,
+        configuredValue.toNanos(),
+        currentValue.toNanos());
+  }
+
+  public Tip(
+      final String description,
+      final ConfigurationProperty configurationProperty,
+      final String activityType,
+      final String taskQueue,
+      final String actionSuggested,
+      final long configuredValueNanos,
+      final long currentValueNanos) {
+    this(
+        description,
+        configurationProperty,
+        activityType,
+        taskQueue,
+        actionSuggested,
+        configuredValueNanos,
+        currentValueNanos,
+        configurationProperty.wastedSlotNanos(configuredValueNanos, currentValueNanos));
+  }
+
+  /** @param wastedSlotNanos estimated capacity wasted, see {@link #getWastedSlotNanos()} */
+  public Tip(
+      final String description,
+      final ConfigurationProperty configurationProperty,
+      final String activityType,
+      final String taskQueue,
+      final String actionSuggested,
+      final long configuredValueNanos,
+      final long currentValueNanos,
+      final long wastedSlotNanos) {
     this.description = description;
 
     this.configurationProperty = configurationProperty;
+    this.activityType = activityType;
+    this.taskQueue = taskQueue;
     this.actionSuggested = actionSuggested;
-    this.configuredValue = configuredValue;
-    this.currentValue = currentValue;
+    this.configuredValueNanos = configuredValueNanos;
+    this.currentValueNanos = currentValueNanos;
+    this.wastedSlotNanos = wastedSlotNanos;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public ConfigurationProperty getConfigurationProperty() {
+    return configurationProperty;
+  }
+
+  public String getActivityType() {
+    return activityType;
+  }
+
+  public String getTaskQueue() {
+    return taskQueue;
+  }
+
+  public String getActionSuggested() {
+    return actionSuggested;
+  }
+
+  public long getConfiguredValueNanos() {
+    return configuredValueNanos;
+  }
+
+  public long getCurrentValueNanos() {
+    return currentValueNanos;
+  }
+
+  /** Execution slot time the configuration wastes: slots held, idle or missing, by time. */
+  public long getWastedSlotNanos() {
+    return wastedSlotNanos;
+  }
+
+  public Duration getConfiguredValue() {
+    return Duration.ofNanos(configuredValueNanos);
+  }
+
+  public Duration getCurrentValue() {
+    return Duration.ofNanos(currentValueNanos);
   }
 
   @Override
@@ -30,15 +126,25 @@ public class Tip {
     final Tip tip = (Tip) o;
     return Objects.equals(description, tip.description)
         && configurationProperty == tip.configurationProperty
-        && actionSuggested == tip.actionSuggested
-        && Objects.equals(configuredValue, tip.configuredValue)
-        && Objects.equals(currentValue, tip.currentValue);
+        && Objects.equals(activityType, tip.activityType)
+        && Objects.equals(taskQueue, tip.taskQueue)
+        && Objects.equals(actionSuggested, tip.actionSuggested)
+        && configuredValueNanos == tip.configuredValueNanos
+        && currentValueNanos == tip.currentValueNanos
+        && wastedSlotNanos == tip.wastedSlotNanos;
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(
-        description, configurationProperty, actionSuggested, configuredValue, currentValue);
+        description,
+        configurationProperty,
+        activityType,
+        taskQueue,
+        actionSuggested,
+        configuredValueNanos,
+        currentValueNanos,
+        wastedSlotNanos);
   }
 
   @Override
@@ -54,17 +160,44 @@ public class Tip {
         + actionSuggested
         + "]"
         + "; configuredValue=["
-        + configuredValue
+        + getConfiguredValue()
         + "]"
         + "; currentValue=["
-        + currentValue
+        + getCurrentValue()
         + "]"
         + '}';
   }
 
-
-
   public enum ConfigurationProperty {
-    ActivityStartToClose
+    ActivityStartToClose,
+    WorkflowTaskPollers,
+    WorkflowTaskTimeout,
+    ChildWorkflowStart,
+    TimerDrift,
+    WorkerActivityExecutionSize,
+    WorkerActivityPollers,
+    ActivityRetryPolicy,
+    ActivityHeartbeatTimeout,
+    WorkerWorkflowTaskExecutionSize;
+
+    /**
+     * Slot time wasted by one tip of this kind, from its values. Timeouts waste their slack, the
+     * time a stuck execution holds its slot before it is retried. A task waiting in the queue holds
+     * its slot for the time above the threshold. The current value of a heartbeat timeout tip is
+     * already the time attempts sat idle until the timeout fired. Timers, child workflow starts and
+     * retry policies hold no slot.
+     */
+    public long wastedSlotNanos(final long configuredValueNanos, final long currentValueNanos) {
+      return switch (this) {
+        case ActivityStartToClose, WorkflowTaskTimeout -> Math.max(
+            0, configuredValueNanos - currentValueNanos);
+        case WorkflowTaskPollers,
+            WorkerWorkflowTaskExecutionSize,
+            WorkerActivityExecutionSize,
+            WorkerActivityPollers -> Math.max(0, currentValueNanos - configuredValueNanos);
+        case ActivityHeartbeatTimeout -> Math.max(0, currentValueNanos);
+        case ChildWorkflowStart, TimerDrift, ActivityRetryPolicy -> 0;
+      };
+    }
   }
 }
@@ -0,0 +1,34 @@
+package com.antmendoza.inspector;
+
+/**
+ * Receives tips as inspectors produce them, see {@link
+ * ConfigurationInspectorResult#ConfigurationInspectorResult(TipSink)}. Sinks shared by the
+ * threads of a parallel analysis have to be thread safe.
+ */
+public interface TipSink extends AutoCloseable {
+
+  void accept(Tip tip);
+
+  @Override
+  default void close() {}
+
+  /** Sends every tip to both sinks, closing closes both. */
+  static TipSink tee(final TipSink first, final TipSink second) {
+    return new TipSink() {
+      @Override
+      public void accept(final Tip tip) {
+        first.accept(tip);
+        second.accept(tip);
+      }
+
+      @Override
+      public void close() {
+        try {
+          first.close();
+        } finally {
+          second.close();
+        }
+      }
+    };
+  }
+}
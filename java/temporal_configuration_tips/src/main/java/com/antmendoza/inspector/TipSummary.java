@@ -0,0 +1,148 @@
+package com.antmendoza.inspector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds identical tips, same configuration property, activity type and task queue, into one {@link
+ * Group} with counts and value ranges, so its memory does not grow with the number of analyzed
+ * runs.
+ *
+ * <p>Groups are ranked by estimated wasted capacity, in slot seconds: the sum, over the folded
+ * tips, of {@link Tip#getWastedSlotNanos()}. For timeouts it is the slack a stuck execution holds a
+ * worker slot for before being retried, for slot and poller counts the slots missing or idle over
+ * the saturated windows. Every kind is measured in the same unit, so the first groups are the
+ * changes with the biggest payoff whatever the property.
+ */
+public class TipSummary implements TipSink {
+
+  private final Map<Key, Accumulator> groups = new HashMap<>();
+
+  @Override
+  public synchronized void accept(final Tip tip) {
+    groups
+        .computeIfAbsent(
+            new Key(tip.getConfigurationProperty(), tip.getActivityType(), tip.getTaskQueue()),
+            k -> new Accumulator(tip))
+        .add(tip);
+  }
+
+  public synchronized long count() {
+    return groups.values().stream().mapToLong(accumulator -> accumulator.count).sum();
+  }
+
+  /** Groups by wasted capacity, biggest first, then by number of tips. */
+  public synchronized List<Group> ranked() {
+    final List<Group> ranked = new ArrayList<>(groups.size());
+    groups.forEach((key, accumulator) -> ranked.add(accumulator.toGroup(key)));
+    ranked.sort(Comparator.comparingDouble(Group::impactSlotSeconds)
+            .thenComparingLong(Group::count)
+            .reversed());
+    return ranked;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder summary = new StringBuilder("TipSummary{");
+    final List<Group> ranked = ranked();
+    for (int i = 0; i < ranked.size(); i++) {
+      final Group group = ranked.get(i);
+      summary
+          .append(System.lineSeparator())
+          .append(" #")
+          .append(i + 1)
+          .append(" configurationProperty=[")
+          .append(group.configurationProperty())
+          .append("]; activityType=[")
+          .append(group.activityType())
+          .append("]; taskQueue=[")
+          .append(group.taskQueue())
+          .append("]; tips=[")
+          .append(group.count())
+          .append("]; wasted=[")
+          .append(String.format("%.1f slot-seconds", group.impactSlotSeconds()))
+          .append("]; configuredValue=[")
+          .append(range(group.minConfiguredValueNanos(), group.maxConfiguredValueNanos()))
+          .append("]; currentValue=[")
+          .append(range(group.minCurrentValueNanos(), group.maxCurrentValueNanos()))
+          .append("]; actionSuggested=[")
+          .append(group.actionSuggested())
+          .append("]; example=[")
+          .append(group.example())
+          .append("]");
+    }
+    return summary.append(System.lineSeparator()).append('}').toString();
+  }
+
+  private static String range(final long min, final long max) {
+    return min == max
+        ? Duration.ofNanos(min).toString()
+        : Duration.ofNanos(min) + " - " + Duration.ofNanos(max);
+  }
+
+  /**
+   * Tips folded by configuration property, activity type and task queue.
+   *
+   * @param impactSlotSeconds wasted capacity, in seconds of one execution slot
+   */
+  public record Group(
+      Tip.ConfigurationProperty configurationProperty,
+      String activityType,
+      String taskQueue,
+      long count,
+      double impactSlotSeconds,
+      long minConfiguredValueNanos,
+      long maxConfiguredValueNanos,
+      long minCurrentValueNanos,
+      long maxCurrentValueNanos,
+      String actionSuggested,
+      String example) {}
+
+  private record Key(
+      Tip.ConfigurationProperty configurationProperty, String activityType, String taskQueue) {}
+
+  private static class Accumulator {
+    // from the first tip of the group
+    private final String actionSuggested;
+    private final String example;
+    private long count;
+    private long wastedSlotNanos;
+    private long minConfiguredValueNanos = Long.MAX_VALUE;
+    private long maxConfiguredValueNanos = Long.MIN_VALUE;
+    private long minCurrentValueNanos = Long.MAX_VALUE;
+    private long maxCurrentValueNanos = Long.MIN_VALUE;
+
+    private Accumulator(final Tip first) {
+      this.actionSuggested = first.getActionSuggested();
+      this.example = first.getDescription();
+    }
+
+    private void add(final Tip tip) {
+      count++;
+      wastedSlotNanos += tip.getWastedSlotNanos();
+      minConfiguredValueNanos = Math.min(minConfiguredValueNanos, tip.getConfiguredValueNanos());
+      maxConfiguredValueNanos = Math.max(maxConfiguredValueNanos, tip.getConfiguredValueNanos());
+      minCurrentValueNanos = Math.min(minCurrentValueNanos, tip.getCurrentValueNanos());
+      maxCurrentValueNanos = Math.max(maxCurrentValueNanos, tip.getCurrentValueNanos());
+    }
+
+    private Group toGroup(final Key key) {
+      return new Group(
+          key.configurationProperty(),
+          key.activityType(),
+          key.taskQueue(),
+          count,
+          wastedSlotNanos / 1e9,
+          minConfiguredValueNanos,
+          maxConfiguredValueNanos,
+          minCurrentValueNanos,
+          maxCurrentValueNanos,
+          actionSuggested,
+          example);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.antmendoza.inspector;
 
 import com.antmendoza.loader.WorkflowExecutionHistoryData;
 import java.util.List;
+import java.util.stream.Collector;
 
 public class WorkflowConfigurationInspector {
 
@@ -22,9 +23,36 @@ public class WorkflowConfigurationInspector {
     this.inspectorList.forEach(
         ad -> {
           configurationInspectorResult.addTip(
-              ad.inspectActivities(this.workflowExecutionHistoryData.getActivityDataList()));
+              ad.inspectActivities(this.workflowExecutionHistoryData.getActivityDataStore()));
+          configurationInspectorResult.addTip(
+              ad.inspectWorkflowTasks(this.workflowExecutionHistoryData.getWorkflowTasks()));
+          configurationInspectorResult.addTip(
+              ad.inspectChildWorkflows(this.workflowExecutionHistoryData.getChildWorkflows()));
+          configurationInspectorResult.addTip(
+              ad.inspectTimers(this.workflowExecutionHistoryData.getTimers()));
         });
 
     return configurationInspectorResult;
   }
+
+  /**
+   * Inspects each history as soon as it is loaded, see {@link
+   * com.antmendoza.loader.HistoryLoaderFromDir#read(int, Collector)}.
+   */
+  public static Collector<WorkflowExecutionHistoryData, ?, ConfigurationInspectorResult>
+      collector() {
+    return Collector.of(
+        ConfigurationInspectorResult::new,
+        (result, data) -> result.merge(new WorkflowConfigurationInspector(data).feedback()),
+        ConfigurationInspectorResult::merge);
+  }
+
+  /** Like {@link #collector()}, tips are handed to the sink as each history is inspected. */
+  public static Collector<WorkflowExecutionHistoryData, ?, ConfigurationInspectorResult>
+      collector(final TipSink sink) {
+    return Collector.of(
+        () -> new ConfigurationInspectorResult(sink),
+        (result, data) -> result.merge(new WorkflowConfigurationInspector(data).feedback()),
+        ConfigurationInspectorResult::merge);
+  }
 }
@@ -1,57 +1,63 @@
 package com.antmendoza.loader;
 
-import io.temporal.api.history.v1.HistoryEvent;
+import com.google.protobuf.Timestamp;
+import io.temporal.api.common.v1.RetryPolicy;
+import io.temporal.api.enums.v1.EventType;
 import java.time.Duration;
 
-public class ActivityData {
+/**
+ * Timing data of one activity execution, extracted from its scheduled, started and final events.
+ *
+ * <p>Latencies and timeouts are precomputed as nanoseconds so large scans don't allocate per
+ * call. Latencies that can not be computed yet, because the activity has not started or closed,
+ * are {@link #NOT_AVAILABLE}. Retried activities only keep their last attempt in the history,
+ * see {@link ActivityDataStore#heartbeatTimeoutFailures(int)}.
+ *
+ * <p>Records are materialized from an {@link ActivityDataStore} row.
+ */
+public record ActivityData(
+    String workflowId,
+    String workflowType,
+    String activityId,
+    String activityType,
+    String taskQueue,
+    long scheduledEventId,
+    long scheduledTimeNanos,
+    long scheduleToStartNanos,
+    long startToCloseNanos,
+    long scheduleToCloseNanos,
+    long startToCloseTimeoutNanos,
+    long scheduleToCloseTimeoutNanos,
+    EventType finalEventType,
+    int attempt,
+    int heartbeatTimeoutFailures,
+    long heartbeatTimeoutNanos,
+    RetryPolicy retryPolicy) {
 
-  private final long activityTaskScheduledId;
-  private String workflowId;
-  private String activityId;
-  private final HistoryEvent activityTaskScheduled;
-  private HistoryEvent activityTaskStarted;
-  private HistoryEvent activityTaskFinalEvent;
+  public static final long NOT_AVAILABLE = -1;
 
-  public ActivityData(
-      final String workflowId, final String activityId, final HistoryEvent activityTaskScheduled) {
-    this.workflowId = workflowId;
-    this.activityId = activityId;
-    this.activityTaskScheduled = activityTaskScheduled;
-    this.activityTaskScheduledId = this.activityTaskScheduled.getEventId();
+  public boolean isStarted() {
+    return scheduleToStartNanos != NOT_AVAILABLE;
   }
 
-  public boolean hasActivityTaskScheduledEvent(long eventId) {
-    return this.activityTaskScheduledId == eventId;
+  public boolean isClosed() {
+    return finalEventType != EventType.EVENT_TYPE_UNSPECIFIED;
   }
 
-  public void addActivityTaskStartedEvent(final HistoryEvent activityTaskStarted) {
-    this.activityTaskStarted = activityTaskStarted;
-  }
-
-  public void addActivityTaskFinalEvent(final HistoryEvent activityTaskFinalEvent) {
-    this.activityTaskFinalEvent = activityTaskFinalEvent;
-  }
-
-  public long scheduleToStartLatency() {
-    return activityTaskStarted.getEventTime().getSeconds()
-        - activityTaskScheduled.getEventTime().getSeconds();
+  public Duration scheduleToStartLatency() {
+    return Duration.ofNanos(scheduleToStartNanos);
   }
 
   public Duration startToCloseLatency() {
+    return Duration.ofNanos(startToCloseNanos);
+  }
 
-    final long nanoseconds =
-        activityTaskFinalEvent.getEventTime().getNanos()
-            - activityTaskStarted.getEventTime().getNanos();
-    return Duration.ofMillis(nanoseconds / 1_000_000);
+  public Duration scheduleToCloseLatency() {
+    return Duration.ofNanos(scheduleToCloseNanos);
   }
 
   public Duration startToCloseConfigValue() {
-
-    return Duration.ofSeconds(
-        activityTaskScheduled
-            .getActivityTaskScheduledEventAttributes()
-            .getStartToCloseTimeout()
-            .getSeconds());
+    return Duration.ofNanos(startToCloseTimeoutNanos);
   }
 
   public String entityDescription() {
@@ -64,4 +70,12 @@ public class ActivityData {
         + '\''
         + '}';
   }
+
+  static long toNanos(final Timestamp timestamp) {
+    return timestamp.getSeconds() * 1_000_000_000L + timestamp.getNanos();
+  }
+
+  static long toNanos(final com.google.protobuf.Duration duration) {
+    return duration.getSeconds() * 1_000_000_000L + duration.getNanos();
+  }
 }
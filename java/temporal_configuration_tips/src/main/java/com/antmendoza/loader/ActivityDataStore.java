@@ -0,0 +1,493 @@
+package com.antmendoza.loader;
+
+import static com.antmendoza.loader.ActivityData.NOT_AVAILABLE;
+
+import io.temporal.api.common.v1.RetryPolicy;
+import io.temporal.api.enums.v1.EventType;
+import io.temporal.api.enums.v1.TimeoutType;
+import io.temporal.api.failure.v1.Failure;
+import io.temporal.api.history.v1.ActivityTaskScheduledEventAttributes;
+import io.temporal.api.history.v1.ActivityTaskStartedEventAttributes;
+import io.temporal.api.history.v1.HistoryEvent;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Columnar storage of activity timing data. Activity types, task queues, workflow types and retry
+ * policies are interned into dictionaries and stored as int ids, timestamps and timeouts are stored
+ * as primitive longs. Ids are unique, so they are not interned: the workflow id is kept once per
+ * execution and activity ids are appended to a byte array. A row takes {@link #bytesPerActivity()}
+ * bytes (88) plus the UTF-8 bytes of its activity id, instead of the objects extracted from the
+ * history events.
+ *
+ * <p>Rows are read by index, without allocation, through the accessors of this class. {@link
+ * #get(int)} and {@link #asList()} materialize {@link ActivityData} records for convenience.
+ *
+ * <p>Instances are not thread safe. To aggregate in parallel, build one store per thread and
+ * {@link #merge(ActivityDataStore)} them, see {@link #collector(Supplier)}.
+ */
+public class ActivityDataStore {
+
+  private static final int STRING_COLUMNS = 3;
+  private static final int RETRY_POLICY_COLUMN = 3;
+  private static final int ACTIVITY_ID_COLUMN = 4;
+
+  private final Dictionary<String> strings = new Dictionary<>();
+  private final Dictionary<RetryPolicy> retryPolicies = new Dictionary<>();
+
+  // one entry per execution, rows of an execution are contiguous
+  private final List<String> workflowIds = new ArrayList<>();
+  private final Column executionFirstRow = new Column.HeapInt();
+  // UTF-8 activity ids one after the other, each row keeps where its id ends
+  private byte[] activityIds = new byte[0];
+  private int activityIdsLength;
+
+  private final Column workflowType;
+  private final Column activityIdEnd;
+  private final Column activityType;
+  private final Column taskQueue;
+  private final Column retryPolicy;
+  private final Column finalEventType;
+  private final Column attempt;
+  private final Column heartbeatTimeoutFailures;
+  private final Column scheduledEventId;
+  private final Column scheduledTimeNanos;
+  private final Column startedTimeNanos;
+  private final Column closedTimeNanos;
+  private final Column startToCloseTimeoutNanos;
+  private final Column scheduleToCloseTimeoutNanos;
+  private final Column heartbeatTimeoutNanos;
+  private final Column[] columns;
+
+  private int size;
+
+  private ActivityDataStore(final boolean offHeap) {
+    workflowType = intColumn(offHeap);
+    activityType = intColumn(offHeap);
+    taskQueue = intColumn(offHeap);
+    retryPolicy = intColumn(offHeap);
+    activityIdEnd = intColumn(offHeap);
+    finalEventType = intColumn(offHeap);
+    attempt = intColumn(offHeap);
+    heartbeatTimeoutFailures = intColumn(offHeap);
+    scheduledEventId = longColumn(offHeap);
+    scheduledTimeNanos = longColumn(offHeap);
+    startedTimeNanos = longColumn(offHeap);
+    closedTimeNanos = longColumn(offHeap);
+    startToCloseTimeoutNanos = longColumn(offHeap);
+    scheduleToCloseTimeoutNanos = longColumn(offHeap);
+    heartbeatTimeoutNanos = longColumn(offHeap);
+    // dictionary ids and activity id offsets first, see merge
+    columns =
+        new Column[] {
+          workflowType,
+          activityType,
+          taskQueue,
+          retryPolicy,
+          activityIdEnd,
+          finalEventType,
+          attempt,
+          heartbeatTimeoutFailures,
+          scheduledEventId,
+          scheduledTimeNanos,
+          startedTimeNanos,
+          closedTimeNanos,
+          startToCloseTimeoutNanos,
+          scheduleToCloseTimeoutNanos,
+          heartbeatTimeoutNanos
+        };
+  }
+
+  public static ActivityDataStore onHeap() {
+    return new ActivityDataStore(false);
+  }
+
+  /** Columns are kept in direct buffers, dictionaries and ids stay on the heap. */
+  public static ActivityDataStore offHeap() {
+    return new ActivityDataStore(true);
+  }
+
+  /** @return the row of the new activity */
+  int addScheduled(
+      final String workflowId,
+      final String workflowType,
+      final HistoryEvent activityTaskScheduled) {
+    final ActivityTaskScheduledEventAttributes scheduled =
+        activityTaskScheduled.getActivityTaskScheduledEventAttributes();
+    final int row = newRow();
+    if (workflowIds.isEmpty() || !workflowIds.get(workflowIds.size() - 1).equals(workflowId)) {
+      addExecution(workflowId, row);
+    }
+    this.workflowType.set(row, strings.id(workflowType));
+    activityIdEnd.set(row, appendActivityId(scheduled.getActivityId()));
+    activityType.set(row, strings.id(scheduled.getActivityType().getName()));
+    taskQueue.set(row, strings.id(scheduled.getTaskQueue().getName()));
+    retryPolicy.set(row, retryPolicies.id(scheduled.getRetryPolicy()));
+    finalEventType.set(row, EventType.EVENT_TYPE_UNSPECIFIED_VALUE);
+    attempt.set(row, 0);
+    heartbeatTimeoutFailures.set(row, 0);
+    scheduledEventId.set(row, activityTaskScheduled.getEventId());
+    scheduledTimeNanos.set(row, ActivityData.toNanos(activityTaskScheduled.getEventTime()));
+    startedTimeNanos.set(row, NOT_AVAILABLE);
+    closedTimeNanos.set(row, NOT_AVAILABLE);
+    startToCloseTimeoutNanos.set(row, ActivityData.toNanos(scheduled.getStartToCloseTimeout()));
+    scheduleToCloseTimeoutNanos.set(
+        row, ActivityData.toNanos(scheduled.getScheduleToCloseTimeout()));
+    heartbeatTimeoutNanos.set(row, ActivityData.toNanos(scheduled.getHeartbeatTimeout()));
+    return row;
+  }
+
+  /**
+   * The started event is only written for the last attempt, with the failure of the attempt before
+   * it.
+   */
+  void setStarted(final int row, final HistoryEvent activityTaskStarted) {
+    final ActivityTaskStartedEventAttributes started =
+        activityTaskStarted.getActivityTaskStartedEventAttributes();
+    startedTimeNanos.set(row, ActivityData.toNanos(activityTaskStarted.getEventTime()));
+    attempt.set(row, started.getAttempt());
+    if (started.hasLastFailure() && isHeartbeatTimeout(started.getLastFailure())) {
+      heartbeatTimeoutFailures.set(row, heartbeatTimeoutFailures.get(row) + 1);
+    }
+  }
+
+  void setClosed(
+      final int row, final EventType finalEventType, final HistoryEvent activityTaskFinalEvent) {
+    this.finalEventType.set(row, finalEventType.getNumber());
+    closedTimeNanos.set(row, ActivityData.toNanos(activityTaskFinalEvent.getEventTime()));
+    if (finalEventType == EventType.EVENT_TYPE_ACTIVITY_TASK_TIMED_OUT
+        && isHeartbeatTimeout(
+            activityTaskFinalEvent.getActivityTaskTimedOutEventAttributes().getFailure())) {
+      heartbeatTimeoutFailures.set(row, heartbeatTimeoutFailures.get(row) + 1);
+    }
+  }
+
+  private static boolean isHeartbeatTimeout(final Failure failure) {
+    return failure.hasTimeoutFailureInfo()
+        && failure.getTimeoutFailureInfo().getTimeoutType() == TimeoutType.TIMEOUT_TYPE_HEARTBEAT;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public String workflowId(final int row) {
+    // last execution starting at or before the row
+    int low = 0;
+    int high = workflowIds.size() - 1;
+    while (low < high) {
+      final int mid = (low + high + 1) >>> 1;
+      if (executionFirstRow.get(mid) <= row) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return workflowIds.get(low);
+  }
+
+  public String workflowType(final int row) {
+    return strings.get((int) workflowType.get(row));
+  }
+
+  public String activityId(final int row) {
+    final int from = row == 0 ? 0 : (int) activityIdEnd.get(row - 1);
+    return new String(
+        activityIds, from, (int) activityIdEnd.get(row) - from, StandardCharsets.UTF_8);
+  }
+
+  public String activityType(final int row) {
+    return strings.get((int) activityType.get(row));
+  }
+
+  public String taskQueue(final int row) {
+    return strings.get((int) taskQueue.get(row));
+  }
+
+  public EventType finalEventType(final int row) {
+    return EventType.forNumber((int) finalEventType.get(row));
+  }
+
+  public long scheduledEventId(final int row) {
+    return scheduledEventId.get(row);
+  }
+
+  public long scheduledTimeNanos(final int row) {
+    return scheduledTimeNanos.get(row);
+  }
+
+  public boolean isStarted(final int row) {
+    return startedTimeNanos.get(row) != NOT_AVAILABLE;
+  }
+
+  public boolean isClosed(final int row) {
+    return closedTimeNanos.get(row) != NOT_AVAILABLE;
+  }
+
+  public long scheduleToStartNanos(final int row) {
+    return isStarted(row) ? startedTimeNanos.get(row) - scheduledTimeNanos.get(row) : NOT_AVAILABLE;
+  }
+
+  public long startToCloseNanos(final int row) {
+    return isStarted(row) && isClosed(row)
+        ? closedTimeNanos.get(row) - startedTimeNanos.get(row)
+        : NOT_AVAILABLE;
+  }
+
+  public long scheduleToCloseNanos(final int row) {
+    return isClosed(row) ? closedTimeNanos.get(row) - scheduledTimeNanos.get(row) : NOT_AVAILABLE;
+  }
+
+  public long startToCloseTimeoutNanos(final int row) {
+    return startToCloseTimeoutNanos.get(row);
+  }
+
+  public long scheduleToCloseTimeoutNanos(final int row) {
+    return scheduleToCloseTimeoutNanos.get(row);
+  }
+
+  /** Attempt of the last started execution, 0 if the activity has not started. */
+  public int attempt(final int row) {
+    return (int) attempt.get(row);
+  }
+
+  /**
+   * Heartbeat timeouts seen in the failure before the last attempt and in the final event. Earlier
+   * failures are not kept in the history, so this is a lower bound when attempts > 2.
+   */
+  public int heartbeatTimeoutFailures(final int row) {
+    return (int) heartbeatTimeoutFailures.get(row);
+  }
+
+  public long heartbeatTimeoutNanos(final int row) {
+    return heartbeatTimeoutNanos.get(row);
+  }
+
+  /** The default instance if the scheduled event had no retry policy. */
+  public RetryPolicy retryPolicy(final int row) {
+    return retryPolicies.get((int) retryPolicy.get(row));
+  }
+
+  public ActivityData get(final int row) {
+    return new ActivityData(
+        workflowId(row),
+        workflowType(row),
+        activityId(row),
+        activityType(row),
+        taskQueue(row),
+        scheduledEventId(row),
+        scheduledTimeNanos(row),
+        scheduleToStartNanos(row),
+        startToCloseNanos(row),
+        scheduleToCloseNanos(row),
+        startToCloseTimeoutNanos(row),
+        scheduleToCloseTimeoutNanos(row),
+        finalEventType(row),
+        attempt(row),
+        heartbeatTimeoutFailures(row),
+        heartbeatTimeoutNanos(row),
+        retryPolicy(row));
+  }
+
+  /** Read only view, each access materializes a new {@link ActivityData}. */
+  public List<ActivityData> asList() {
+    return new AbstractList<>() {
+      @Override
+      public ActivityData get(final int index) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException(index);
+        }
+        return ActivityDataStore.this.get(index);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * Fixed bytes taken by each activity in the columns. Activity ids add their UTF-8 length,
+   * workflow ids are kept once per execution and dictionary values once per store, they are not
+   * counted.
+   */
+  public int bytesPerActivity() {
+    int bytes = 0;
+    for (final Column column : columns) {
+      bytes += column.width();
+    }
+    return bytes;
+  }
+
+  /** Appends the rows of {@code other}, translating its dictionary ids. */
+  public ActivityDataStore merge(final ActivityDataStore other) {
+    final int firstRow = size;
+    final int activityIdBase = activityIdsLength;
+    for (int i = 0; i < other.workflowIds.size(); i++) {
+      addExecution(other.workflowIds.get(i), firstRow + (int) other.executionFirstRow.get(i));
+    }
+    appendActivityIds(other.activityIds, other.activityIdsLength);
+
+    final int[] stringIds = new int[other.strings.size()];
+    for (int i = 0; i < stringIds.length; i++) {
+      stringIds[i] = strings.id(other.strings.get(i));
+    }
+    final int[] retryPolicyIds = new int[other.retryPolicies.size()];
+    for (int i = 0; i < retryPolicyIds.length; i++) {
+      retryPolicyIds[i] = retryPolicies.id(other.retryPolicies.get(i));
+    }
+
+    for (int otherRow = 0; otherRow < other.size; otherRow++) {
+      final int row = newRow();
+      for (int c = 0; c < columns.length; c++) {
+        columns[c].set(
+            row,
+            translate(
+                c, other.columns[c].get(otherRow), stringIds, retryPolicyIds, activityIdBase));
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Copies the activities of every history into a single store, see {@link
+   * HistoryLoaderFromDir#read(int, Collector)}.
+   */
+  public static Collector<WorkflowExecutionHistoryData, ?, ActivityDataStore> collector(
+      final Supplier<ActivityDataStore> storeFactory) {
+    return Collector.of(
+        storeFactory,
+        (store, data) -> store.merge(data.getActivityDataStore()),
+        ActivityDataStore::merge);
+  }
+
+  /** Writes the dictionaries, the ids and the columns, see {@link #readFrom(DataInput)}. */
+  void writeTo(final DataOutput out) throws IOException {
+    out.writeInt(workflowIds.size());
+    for (int i = 0; i < workflowIds.size(); i++) {
+      out.writeUTF(workflowIds.get(i));
+      out.writeInt((int) executionFirstRow.get(i));
+    }
+    out.writeInt(activityIdsLength);
+    out.write(activityIds, 0, activityIdsLength);
+    out.writeInt(strings.size());
+    for (int i = 0; i < strings.size(); i++) {
+      out.writeUTF(strings.get(i));
+    }
+    out.writeInt(retryPolicies.size());
+    for (int i = 0; i < retryPolicies.size(); i++) {
+      final byte[] bytes = retryPolicies.get(i).toByteArray();
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+    out.writeInt(size);
+    for (final Column column : columns) {
+      for (int row = 0; row < size; row++) {
+        if (column.width() == Integer.BYTES) {
+          out.writeInt((int) column.get(row));
+        } else {
+          out.writeLong(column.get(row));
+        }
+      }
+    }
+  }
+
+  /** Appends the rows written by {@link #writeTo(DataOutput)}, translating dictionary ids. */
+  void readFrom(final DataInput in) throws IOException {
+    final int firstRow = size;
+    final int executions = in.readInt();
+    for (int i = 0; i < executions; i++) {
+      final String workflowId = in.readUTF();
+      addExecution(workflowId, firstRow + in.readInt());
+    }
+    final int activityIdBase = activityIdsLength;
+    final byte[] ids = new byte[in.readInt()];
+    in.readFully(ids);
+    appendActivityIds(ids, ids.length);
+
+    final int[] stringIds = new int[in.readInt()];
+    for (int i = 0; i < stringIds.length; i++) {
+      stringIds[i] = strings.id(in.readUTF());
+    }
+    final int[] retryPolicyIds = new int[in.readInt()];
+    for (int i = 0; i < retryPolicyIds.length; i++) {
+      final byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      retryPolicyIds[i] = retryPolicies.id(RetryPolicy.parseFrom(bytes));
+    }
+
+    final int rows = in.readInt();
+    for (int row = 0; row < rows; row++) {
+      newRow();
+    }
+    for (int c = 0; c < columns.length; c++) {
+      final Column column = columns[c];
+      for (int row = firstRow; row < size; row++) {
+        final long value = column.width() == Integer.BYTES ? in.readInt() : in.readLong();
+        column.set(row, translate(c, value, stringIds, retryPolicyIds, activityIdBase));
+      }
+    }
+  }
+
+  private static long translate(
+      final int column,
+      final long value,
+      final int[] stringIds,
+      final int[] retryPolicyIds,
+      final int activityIdBase) {
+    if (column < STRING_COLUMNS) {
+      return stringIds[(int) value];
+    }
+    if (column == RETRY_POLICY_COLUMN) {
+      return retryPolicyIds[(int) value];
+    }
+    return column == ACTIVITY_ID_COLUMN ? activityIdBase + value : value;
+  }
+
+  private void addExecution(final String workflowId, final int firstRow) {
+    executionFirstRow.ensureCapacity(workflowIds.size() + 1);
+    executionFirstRow.set(workflowIds.size(), firstRow);
+    workflowIds.add(workflowId);
+  }
+
+  /** @return where the id ends */
+  private int appendActivityId(final String activityId) {
+    final byte[] bytes = activityId.getBytes(StandardCharsets.UTF_8);
+    appendActivityIds(bytes, bytes.length);
+    return activityIdsLength;
+  }
+
+  private void appendActivityIds(final byte[] bytes, final int length) {
+    if (activityIdsLength + length > activityIds.length) {
+      activityIds =
+          Arrays.copyOf(activityIds, Column.grow(activityIds.length, activityIdsLength + length));
+    }
+    System.arraycopy(bytes, 0, activityIds, activityIdsLength, length);
+    activityIdsLength += length;
+  }
+
+  private int newRow() {
+    final int row = size++;
+    for (final Column column : columns) {
+      column.ensureCapacity(size);
+    }
+    return row;
+  }
+
+  private static Column intColumn(final boolean offHeap) {
+    return offHeap ? new Column.OffHeap(Integer.BYTES) : new Column.HeapInt();
+  }
+
+  private static Column longColumn(final boolean offHeap) {
+    return offHeap ? new Column.OffHeap(Long.BYTES) : new Column.HeapLong();
+  }
+}
@@ -0,0 +1,97 @@
+package com.antmendoza.loader;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Loads histories from a sequence of sources, files or workflow executions, with a bounded number
+ * of threads and of sources in flight.
+ */
+final class BoundedParallelReader {
+
+  private BoundedParallelReader() {}
+
+  /**
+   * Each thread accumulates into its own container, containers are combined once all the sources
+   * have been processed. At most {@code 2 * parallelism} sources are queued or in progress at any
+   * time, so each history can be garbage collected as soon as the collector has seen it. The first
+   * failure stops the submission of new sources and is rethrown.
+   */
+  static <S, T, A, R> R read(
+      final Iterator<S> sources,
+      final Function<S, T> loader,
+      final int parallelism,
+      final Collector<T, A, R> collector) {
+
+    final Queue<A> containers = new ConcurrentLinkedQueue<>();
+    for (int i = 0; i < parallelism; i++) {
+      containers.add(collector.supplier().get());
+    }
+
+    final int maxInFlight = parallelism * 2;
+    final Semaphore inFlight = new Semaphore(maxInFlight);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final ExecutorService executor = Executors.newFixedThreadPool(parallelism, threadFactory());
+
+    try {
+      while (sources.hasNext() && failure.get() == null) {
+        final S source = sources.next();
+        inFlight.acquire();
+        executor.execute(
+            () -> {
+              try {
+                final T data = loader.apply(source);
+                // never empty, there are as many containers as threads
+                final A container = containers.poll();
+                try {
+                  collector.accumulator().accept(container, data);
+                } finally {
+                  containers.add(container);
+                }
+              } catch (Throwable e) {
+                failure.compareAndSet(null, new RuntimeException("Failed to load " + source, e));
+              } finally {
+                inFlight.release();
+              }
+            });
+      }
+
+      // wait for the last sources
+      inFlight.acquire(maxInFlight);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (failure.get() != null) {
+      throw (RuntimeException) failure.get();
+    }
+
+    A result = containers.poll();
+    for (A container : containers) {
+      result = collector.combiner().apply(result, container);
+    }
+    return collector.finisher().apply(result);
+  }
+
+  private static ThreadFactory threadFactory() {
+    final AtomicInteger count = new AtomicInteger();
+    return r -> {
+      final Thread thread = new Thread(r, "history-loader-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,87 @@
+package com.antmendoza.loader;
+
+import static com.antmendoza.loader.ActivityData.NOT_AVAILABLE;
+
+import io.temporal.api.enums.v1.EventType;
+import java.time.Duration;
+
+/**
+ * Timing data of one child workflow, extracted from the parent history. Times that are not in the
+ * history yet are {@link ActivityData#NOT_AVAILABLE}.
+ *
+ * <p>{@link #finalEventType()} is {@link
+ * EventType#EVENT_TYPE_START_CHILD_WORKFLOW_EXECUTION_FAILED} when the child could not be started.
+ */
+public record ChildWorkflowData(
+    String workflowId,
+    String workflowType,
+    String childWorkflowId,
+    String childWorkflowType,
+    long initiatedEventId,
+    long initiatedTimeNanos,
+    long startedTimeNanos,
+    long closedTimeNanos,
+    EventType finalEventType) {
+
+  public boolean isStarted() {
+    return startedTimeNanos != NOT_AVAILABLE;
+  }
+
+  public boolean isClosed() {
+    return finalEventType != EventType.EVENT_TYPE_UNSPECIFIED;
+  }
+
+  /** Time from the parent requesting the child to the child being started. */
+  public long startLatencyNanos() {
+    return isStarted() ? startedTimeNanos - initiatedTimeNanos : NOT_AVAILABLE;
+  }
+
+  public long startToCloseNanos() {
+    return isStarted() && isClosed() ? closedTimeNanos - startedTimeNanos : NOT_AVAILABLE;
+  }
+
+  public Duration startLatency() {
+    return Duration.ofNanos(startLatencyNanos());
+  }
+
+  public Duration startToCloseLatency() {
+    return Duration.ofNanos(startToCloseNanos());
+  }
+
+  public String entityDescription() {
+    return "ChildWorkflowData{"
+        + "workflowId='"
+        + workflowId
+        + '\''
+        + ", childWorkflowId='"
+        + childWorkflowId
+        + '\''
+        + '}';
+  }
+
+  ChildWorkflowData started(final long startedTimeNanos) {
+    return new ChildWorkflowData(
+        workflowId,
+        workflowType,
+        childWorkflowId,
+        childWorkflowType,
+        initiatedEventId,
+        initiatedTimeNanos,
+        startedTimeNanos,
+        closedTimeNanos,
+        finalEventType);
+  }
+
+  ChildWorkflowData closed(final EventType finalEventType, final long closedTimeNanos) {
+    return new ChildWorkflowData(
+        workflowId,
+        workflowType,
+        childWorkflowId,
+        childWorkflowType,
+        initiatedEventId,
+        initiatedTimeNanos,
+        startedTimeNanos,
+        closedTimeNanos,
+        finalEventType);
+  }
+}
@@ -0,0 +1,116 @@
+package com.antmendoza.loader;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** Fixed width column of primitive values, indexed by row. */
+interface Column {
+
+  long get(int row);
+
+  void set(int row, long value);
+
+  /** Grows the column, keeping its values, so it can hold at least {@code rows} rows. */
+  void ensureCapacity(int rows);
+
+  /** Bytes used by one row. */
+  int width();
+
+  static int grow(final int capacity, final int rows) {
+    return Math.max(rows, Math.max(16, capacity + (capacity >> 1)));
+  }
+
+  class HeapLong implements Column {
+    private long[] values = new long[0];
+
+    @Override
+    public long get(final int row) {
+      return values[row];
+    }
+
+    @Override
+    public void set(final int row, final long value) {
+      values[row] = value;
+    }
+
+    @Override
+    public void ensureCapacity(final int rows) {
+      if (rows > values.length) {
+        values = Arrays.copyOf(values, grow(values.length, rows));
+      }
+    }
+
+    @Override
+    public int width() {
+      return Long.BYTES;
+    }
+  }
+
+  class HeapInt implements Column {
+    private int[] values = new int[0];
+
+    @Override
+    public long get(final int row) {
+      return values[row];
+    }
+
+    @Override
+    public void set(final int row, final long value) {
+      values[row] = Math.toIntExact(value);
+    }
+
+    @Override
+    public void ensureCapacity(final int rows) {
+      if (rows > values.length) {
+        values = Arrays.copyOf(values, grow(values.length, rows));
+      }
+    }
+
+    @Override
+    public int width() {
+      return Integer.BYTES;
+    }
+  }
+
+  /** Values live in a direct buffer, outside of the java heap. */
+  class OffHeap implements Column {
+    private final int width;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(0);
+
+    OffHeap(final int width) {
+      if (width != Integer.BYTES && width != Long.BYTES) {
+        throw new IllegalArgumentException("Unsupported width " + width);
+      }
+      this.width = width;
+    }
+
+    @Override
+    public long get(final int row) {
+      return width == Long.BYTES ? buffer.getLong(row * width) : buffer.getInt(row * width);
+    }
+
+    @Override
+    public void set(final int row, final long value) {
+      if (width == Long.BYTES) {
+        buffer.putLong(row * width, value);
+      } else {
+        buffer.putInt(row * width, Math.toIntExact(value));
+      }
+    }
+
+    @Override
+    public void ensureCapacity(final int rows) {
+      final int capacity = buffer.capacity() / width;
+      if (rows > capacity) {
+        final ByteBuffer bigger = ByteBuffer.allocateDirect(grow(capacity, rows) * width);
+        bigger.put(buffer.clear());
+        buffer = bigger;
+      }
+    }
+
+    @Override
+    public int width() {
+      return width;
+    }
+  }
+}
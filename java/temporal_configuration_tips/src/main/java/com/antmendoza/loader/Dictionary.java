@@ -0,0 +1,31 @@
+package com.antmendoza.loader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Maps repeated values, like activity types, task queues or retry policies, to dense int ids. */
+class Dictionary<T> {
+
+  private final Map<T, Integer> ids = new HashMap<>();
+  private final List<T> values = new ArrayList<>();
+
+  int id(final T value) {
+    Integer id = ids.get(value);
+    if (id == null) {
+      id = values.size();
+      values.add(value);
+      ids.put(value, id);
+    }
+    return id;
+  }
+
+  T get(final int id) {
+    return values.get(id);
+  }
+
+  int size() {
+    return values.size();
+  }
+}
@@ -0,0 +1,260 @@
+package com.antmendoza.loader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * On disk cache of the data extracted from history files, so repeated analyses of the same
+ * directory only parse new or changed files.
+ *
+ * <p>Entries are keyed by file name, histories are read from a single directory, and are valid
+ * while the file keeps its modification time and size. The cache is a single binary file, a header
+ * followed by {@code [key, mtime, size, length, data]} records. Only the index is kept in memory,
+ * entries are read from the file on demand.
+ *
+ * <p>Every entry used, hit or miss, is copied into a new file that replaces the previous one on
+ * {@link #close()}, entries of deleted files are dropped. If the new file can not be written, for
+ * example on a read only file system, the cache keeps serving the entries of the previous one and
+ * {@link #writeFailure()} tells why it was not updated. {@link #get(Path, Function)} can be called
+ * from many threads.
+ */
+public class HistoryCache implements Closeable {
+
+  private static final int MAGIC = 0x54495053;
+  private static final int VERSION = 4;
+
+  private final Path path;
+  private final Path nextPath;
+  private final Map<String, Entry> entries;
+  private final FileChannel previous;
+  private final Object lock = new Object();
+  // null once writing failed
+  private DataOutputStream next;
+  private IOException writeFailure;
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+
+  private HistoryCache(final Path path) throws IOException {
+    this.path = path;
+    this.nextPath = path.resolveSibling(path.getFileName() + ".next");
+    this.entries = new HashMap<>();
+    this.previous = Files.exists(path) ? openPreviousOrNull(path, entries) : null;
+    try {
+      next = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(nextPath)));
+      next.writeInt(MAGIC);
+      next.writeInt(VERSION);
+    } catch (IOException e) {
+      writeFailed(e);
+    }
+  }
+
+  /** Opens the cache, an unreadable or incompatible cache file is ignored and rewritten. */
+  public static HistoryCache open(final Path path) {
+    try {
+      return new HistoryCache(path);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Returns the cached data of the history file, or loads it with {@code loader} and caches it if
+   * the file is new or has changed.
+   */
+  public WorkflowExecutionHistoryData get(
+      final Path file, final Function<Path, WorkflowExecutionHistoryData> loader) {
+    try {
+      final String key = file.getFileName().toString();
+      final BasicFileAttributes attributes =
+          Files.readAttributes(file, BasicFileAttributes.class);
+      final long mtime = attributes.lastModifiedTime().toMillis();
+      final long size = attributes.size();
+
+      final Entry entry = entries.get(key);
+      final byte[] bytes;
+      final WorkflowExecutionHistoryData data;
+      if (entry != null && entry.mtime == mtime && entry.size == size) {
+        bytes = new byte[entry.length];
+        readFully(previous, ByteBuffer.wrap(bytes), entry.offset);
+        data =
+            WorkflowExecutionHistoryData.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes)));
+        hits.incrementAndGet();
+      } else {
+        data = loader.apply(file);
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        data.writeTo(new DataOutputStream(buffer));
+        bytes = buffer.toByteArray();
+        misses.incrementAndGet();
+      }
+
+      synchronized (lock) {
+        if (next != null) {
+          try {
+            next.writeUTF(key);
+            next.writeLong(mtime);
+            next.writeLong(size);
+            next.writeInt(bytes.length);
+            next.write(bytes);
+          } catch (IOException e) {
+            writeFailed(e);
+          }
+        }
+      }
+      return data;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  public int hits() {
+    return hits.get();
+  }
+
+  public int misses() {
+    return misses.get();
+  }
+
+  /** Why the cache file could not be updated, null if it was or will be on close. */
+  public IOException writeFailure() {
+    synchronized (lock) {
+      return writeFailure;
+    }
+  }
+
+  /**
+   * Replaces the cache file with the entries used since it was opened, unless writing failed, see
+   * {@link #writeFailure()}.
+   */
+  @Override
+  public void close() {
+    try {
+      if (previous != null) {
+        previous.close();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    synchronized (lock) {
+      if (next == null) {
+        return;
+      }
+      try {
+        next.close();
+        next = null;
+        Files.move(
+            nextPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        writeFailed(e);
+      }
+    }
+  }
+
+  private void writeFailed(final IOException e) {
+    writeFailure = e;
+    if (next != null) {
+      try {
+        next.close();
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      next = null;
+    }
+    try {
+      Files.deleteIfExists(nextPath);
+    } catch (IOException suppressed) {
+      e.addSuppressed(suppressed);
+    }
+  }
+
+  private static FileChannel openPreviousOrNull(
+      final Path path, final Map<String, Entry> entries) {
+    try {
+      return openPrevious(path, entries);
+    } catch (IOException e) {
+      // unreadable, start from an empty cache
+      entries.clear();
+      return null;
+    }
+  }
+
+  private static FileChannel openPrevious(final Path path, final Map<String, Entry> entries)
+      throws IOException {
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        channel.close();
+        return null;
+      }
+      long offset = 2 * Integer.BYTES;
+      while (true) {
+        final String key;
+        try {
+          key = in.readUTF();
+        } catch (EOFException e) {
+          break;
+        }
+        final long mtime = in.readLong();
+        final long size = in.readLong();
+        final int length = in.readInt();
+        if (length < 0) {
+          throw new IOException("negative entry length " + length);
+        }
+        offset += 2 + utfLength(key) + 2 * Long.BYTES + Integer.BYTES;
+        in.skipNBytes(length);
+        entries.put(key, new Entry(mtime, size, offset, length));
+        offset += length;
+      }
+    } catch (EOFException e) {
+      // truncated header or record, keep the complete entries
+    } catch (IOException e) {
+      // corrupt, start from an empty cache
+      channel.close();
+      entries.clear();
+      return null;
+    }
+    return channel;
+  }
+
+  private static void readFully(final FileChannel channel, final ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      final int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new EOFException();
+      }
+      position += read;
+    }
+  }
+
+  // bytes of the modified UTF-8 encoding used by DataOutput.writeUTF
+  private static int utfLength(final String s) {
+    int length = 0;
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      length += c >= 0x0001 && c <= 0x007F ? 1 : c > 0x07FF ? 3 : 2;
+    }
+    return length;
+  }
+
+  private record Entry(long mtime, long size, long offset, int length) {}
+}
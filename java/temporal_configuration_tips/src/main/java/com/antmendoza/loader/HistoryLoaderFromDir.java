@@ -6,6 +6,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -21,14 +22,93 @@ public class HistoryLoaderFromDir implements HistoryLoader {
   public List<WorkflowExecutionHistory> read() {
 
     return loadFiles().stream()
-        .map(
-            f -> {
-              final Path filePath = Path.of(path.toString(), f);
-              return new HistoryLoaderFromFile(filePath).read();
-            })
+        .map(f -> readHistory(Path.of(path.toString(), f)))
         .collect(Collectors.toList());
   }
 
+  /** Parses the whole history in a json or binary file, see {@link ProtoHistoryLoaderFromFile}. */
+  public static WorkflowExecutionHistory readHistory(final Path file) {
+    return ProtoHistoryLoaderFromFile.isProtoHistory(file)
+        ? new ProtoHistoryLoaderFromFile(file).readHistory()
+        : new HistoryLoaderFromFile(file).read();
+  }
+
+  /**
+   * Streams every file in the directory through {@link StreamingHistoryLoaderFromFile}, or {@link
+   * ProtoHistoryLoaderFromFile} for binary histories, using {@code parallelism} threads, and
+   * reduces the extracted data with the collector.
+   *
+   * <p>Each thread accumulates into its own container, containers are combined once all the files
+   * have been processed. At most {@code 2 * parallelism} files are queued or in progress at any
+   * time, so each history can be garbage collected as soon as the collector has seen it.
+   */
+  public <A, R> R read(
+      final int parallelism, final Collector<WorkflowExecutionHistoryData, A, R> collector) {
+
+    try (Stream<Path> stream = Files.list(path)) {
+      return BoundedParallelReader.read(
+          stream.filter(file -> !Files.isDirectory(file)).iterator(),
+          HistoryLoaderFromDir::load,
+          parallelism,
+          collector);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Like {@link #read(int, Collector)}, files already in the cache with the same modification
+   * time and size are not parsed again.
+   */
+  public <A, R> R read(
+      final int parallelism,
+      final Collector<WorkflowExecutionHistoryData, A, R> collector,
+      final HistoryCache cache) {
+
+    try (Stream<Path> stream = Files.list(path)) {
+      return BoundedParallelReader.read(
+          stream.filter(file -> !Files.isDirectory(file)).iterator(),
+          file -> cache.get(file, HistoryLoaderFromDir::load),
+          parallelism,
+          collector);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Measures the size of every history in the directory, see {@link HistorySize}. Like {@link
+   * #read(int, Collector)}, with at most {@code 2 * parallelism} files in flight.
+   */
+  public <A, R> R readSizes(final int parallelism, final Collector<HistorySize, A, R> collector) {
+
+    try (Stream<Path> stream = Files.list(path)) {
+      return BoundedParallelReader.read(
+          stream.filter(file -> !Files.isDirectory(file)).iterator(),
+          HistoryLoaderFromDir::loadSize,
+          parallelism,
+          collector);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static HistorySize loadSize(final Path file) {
+    final HistorySize historySize = new HistorySize(file.getFileName().toString());
+    if (ProtoHistoryLoaderFromFile.isProtoHistory(file)) {
+      new ProtoHistoryLoaderFromFile(file).read(historySize::addEvent);
+    } else {
+      new StreamingHistoryLoaderFromFile(file).read(historySize::addEvent);
+    }
+    return historySize;
+  }
+
+  private static WorkflowExecutionHistoryData load(final Path file) {
+    return ProtoHistoryLoaderFromFile.isProtoHistory(file)
+        ? new ProtoHistoryLoaderFromFile(file).read()
+        : new StreamingHistoryLoaderFromFile(file).read();
+  }
+
   private Collection<String> loadFiles() {
     try (Stream<Path> stream = Files.list(path)) {
       return stream
@@ -0,0 +1,150 @@
+package com.antmendoza.loader;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.history.v1.History;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.api.workflow.v1.WorkflowExecutionInfo;
+import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryRequest;
+import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryResponse;
+import io.temporal.api.workflowservice.v1.ListClosedWorkflowExecutionsRequest;
+import io.temporal.api.workflowservice.v1.ListClosedWorkflowExecutionsResponse;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowExecutionMetadata;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads histories straight from a Temporal frontend, without exporting them to files.
+ *
+ * <p>Histories are fetched page by page with GetWorkflowExecutionHistory, and each page is fed to
+ * the {@link WorkflowExecutionHistoryData} of the execution as it arrives, see {@link #read(int,
+ * Collector)}.
+ */
+public class HistoryLoaderFromService implements HistoryLoader {
+
+  public static final int DEFAULT_PAGE_SIZE = 1000;
+
+  private final WorkflowClient client;
+  private final Supplier<Stream<WorkflowExecution>> executions;
+  private final int pageSize;
+
+  /**
+   * Executions matching a visibility query, see {@link WorkflowClient#listExecutions(String)}. An
+   * empty query lists every execution of the namespace.
+   */
+  public HistoryLoaderFromService(final WorkflowClient client, final String query) {
+    this(
+        client,
+        () -> client.listExecutions(query).map(WorkflowExecutionMetadata::getExecution),
+        DEFAULT_PAGE_SIZE);
+  }
+
+  private HistoryLoaderFromService(
+      final WorkflowClient client,
+      final Supplier<Stream<WorkflowExecution>> executions,
+      final int pageSize) {
+    this.client = client;
+    this.executions = executions;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Closed executions of the namespace, listed with ListClosedWorkflowExecutions. Unlike
+   * visibility queries it is supported by every server, including the in-process test server.
+   */
+  public static HistoryLoaderFromService closedExecutions(final WorkflowClient client) {
+    return new HistoryLoaderFromService(
+        client, () -> listClosedExecutions(client), DEFAULT_PAGE_SIZE);
+  }
+
+  /** @param pageSize maximum number of events fetched per GetWorkflowExecutionHistory call */
+  public HistoryLoaderFromService withPageSize(final int pageSize) {
+    return new HistoryLoaderFromService(client, executions, pageSize);
+  }
+
+  @Override
+  public List<WorkflowExecutionHistory> read() {
+    try (Stream<WorkflowExecution> stream = executions.get()) {
+      return stream
+          .map(
+              execution -> {
+                final History.Builder history = History.newBuilder();
+                fetchHistory(execution, history::addEvents);
+                return new WorkflowExecutionHistory(history.build(), execution.getWorkflowId());
+              })
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Fetches the history of every execution using {@code parallelism} threads, and reduces the
+   * extracted data with the collector. Like {@link HistoryLoaderFromDir#read(int, Collector)}, at
+   * most {@code 2 * parallelism} executions are queued or being fetched at any time.
+   */
+  public <A, R> R read(
+      final int parallelism, final Collector<WorkflowExecutionHistoryData, A, R> collector) {
+    try (Stream<WorkflowExecution> stream = executions.get()) {
+      return BoundedParallelReader.read(
+          stream.iterator(),
+          execution -> {
+            final WorkflowExecutionHistoryData data =
+                new WorkflowExecutionHistoryData(execution.getWorkflowId());
+            fetchHistory(execution, data::addEvent);
+            return data;
+          },
+          parallelism,
+          collector);
+    }
+  }
+
+  private void fetchHistory(
+      final WorkflowExecution execution, final Consumer<HistoryEvent> eventConsumer) {
+    ByteString nextPageToken = ByteString.EMPTY;
+    do {
+      final GetWorkflowExecutionHistoryResponse response =
+          client
+              .getWorkflowServiceStubs()
+              .blockingStub()
+              .getWorkflowExecutionHistory(
+                  GetWorkflowExecutionHistoryRequest.newBuilder()
+                      .setNamespace(client.getOptions().getNamespace())
+                      .setExecution(execution)
+                      .setMaximumPageSize(pageSize)
+                      .setNextPageToken(nextPageToken)
+                      .build());
+      response.getHistory().getEventsList().forEach(eventConsumer);
+      nextPageToken = response.getNextPageToken();
+    } while (!nextPageToken.isEmpty());
+  }
+
+  private static Stream<WorkflowExecution> listClosedExecutions(final WorkflowClient client) {
+    return Stream.iterate(
+            listClosedExecutions(client, ByteString.EMPTY),
+            Objects::nonNull,
+            response ->
+                response.getNextPageToken().isEmpty()
+                    ? null
+                    : listClosedExecutions(client, response.getNextPageToken()))
+        .flatMap(response -> response.getExecutionsList().stream())
+        .map(WorkflowExecutionInfo::getExecution);
+  }
+
+  private static ListClosedWorkflowExecutionsResponse listClosedExecutions(
+      final WorkflowClient client, final ByteString nextPageToken) {
+    return client
+        .getWorkflowServiceStubs()
+        .blockingStub()
+        .listClosedWorkflowExecutions(
+            ListClosedWorkflowExecutionsRequest.newBuilder()
+                .setNamespace(client.getOptions().getNamespace())
+                .setNextPageToken(nextPageToken)
+                .build());
+  }
+}
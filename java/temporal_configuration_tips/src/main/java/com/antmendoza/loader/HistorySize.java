@@ -0,0 +1,107 @@
+package com.antmendoza.loader;
+
+import io.temporal.api.enums.v1.EventType;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.common.WorkflowExecutionHistory;
+
+/**
+ * Number of events, serialized bytes and payload bytes of one history, per event type, see {@link
+ * HistoryLoaderFromDir#readSizes(int, java.util.stream.Collector)}.
+ *
+ * <p>The serialized bytes of the events add up to the history size the server limits. Payload bytes
+ * are the part of them taken by inputs, results, failure details, headers, memos and search
+ * attributes.
+ */
+public class HistorySize {
+
+  private static final int EVENT_TYPES = maxEventTypeNumber() + 1;
+
+  private final String workflowId;
+  private final long[] events = new long[EVENT_TYPES];
+  private final long[] bytes = new long[EVENT_TYPES];
+  private final long[] payloadBytes = new long[EVENT_TYPES];
+  private String workflowType = "";
+  private long completedWorkflowTasks;
+
+  public HistorySize(final WorkflowExecutionHistory workflowExecutionHistory) {
+    this(workflowExecutionHistory.getWorkflowExecution().getWorkflowId());
+    workflowExecutionHistory.getEvents().forEach(this::addEvent);
+  }
+
+  /** Empty size to be fed event by event, see {@link #addEvent(HistoryEvent)}. */
+  public HistorySize(final String workflowId) {
+    this.workflowId = workflowId;
+  }
+
+  public void addEvent(final HistoryEvent e) {
+    // event types added after this build are counted as unspecified
+    final int type = e.getEventTypeValue() < EVENT_TYPES ? Math.max(0, e.getEventTypeValue()) : 0;
+    events[type]++;
+    bytes[type] += e.getSerializedSize();
+    payloadBytes[type] += PayloadBytes.of(e);
+
+    if (e.hasWorkflowExecutionStartedEventAttributes()) {
+      workflowType = e.getWorkflowExecutionStartedEventAttributes().getWorkflowType().getName();
+    } else if (e.getEventType() == EventType.EVENT_TYPE_WORKFLOW_TASK_COMPLETED) {
+      completedWorkflowTasks++;
+    }
+  }
+
+  public String getWorkflowId() {
+    return workflowId;
+  }
+
+  public String getWorkflowType() {
+    return workflowType;
+  }
+
+  /**
+   * Each completed workflow task is one iteration of the workflow code: a loop that waits for a
+   * signal, a timer or an activity needs one workflow task per turn.
+   */
+  public long completedWorkflowTasks() {
+    return completedWorkflowTasks;
+  }
+
+  public long events(final EventType eventType) {
+    return events[eventType.getNumber()];
+  }
+
+  public long bytes(final EventType eventType) {
+    return bytes[eventType.getNumber()];
+  }
+
+  public long payloadBytes(final EventType eventType) {
+    return payloadBytes[eventType.getNumber()];
+  }
+
+  public long totalEvents() {
+    return sum(events);
+  }
+
+  public long totalBytes() {
+    return sum(bytes);
+  }
+
+  public long totalPayloadBytes() {
+    return sum(payloadBytes);
+  }
+
+  private static long sum(final long[] values) {
+    long sum = 0;
+    for (final long value : values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+  private static int maxEventTypeNumber() {
+    int max = 0;
+    for (final EventType eventType : EventType.values()) {
+      if (eventType != EventType.UNRECOGNIZED) {
+        max = Math.max(max, eventType.getNumber());
+      }
+    }
+    return max;
+  }
+}
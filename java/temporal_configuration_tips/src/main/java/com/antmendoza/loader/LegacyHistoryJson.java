@@ -0,0 +1,23 @@
+package com.antmendoza.loader;
+
+import io.temporal.internal.common.HistoryJsonUtils;
+
+/**
+ * Converts between the history json of older exports (tctl / web UI v1), where enums are written as
+ * {@code "WorkflowExecutionStarted"}, and the proto json format.
+ *
+ * <p>{@link HistoryJsonUtils} is internal to the Temporal SDK and can change in any release, this
+ * is the only class allowed to use it so an SDK upgrade only has to fix this one.
+ */
+final class LegacyHistoryJson {
+
+  private LegacyHistoryJson() {}
+
+  static String toProtoJson(final String legacyJson) {
+    return HistoryJsonUtils.historyFormatJsonToProtoJson(legacyJson);
+  }
+
+  static String fromProtoJson(final String protoJson) {
+    return HistoryJsonUtils.protoJsonToHistoryFormatJson(protoJson);
+  }
+}
@@ -0,0 +1,127 @@
+package com.antmendoza.loader;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map keyed by primitive {@code long}, used to correlate history events by
+ * event id without boxing every key.
+ */
+class LongObjectHashMap<V> {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+  private Object[] values;
+  private int size;
+  private int mask;
+
+  LongObjectHashMap() {
+    this(16);
+  }
+
+  LongObjectHashMap(final int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(final long key) {
+    int i = index(key);
+    while (values[i] != null) {
+      if (keys[i] == key) {
+        return (V) values[i];
+      }
+      i = (i + 1) & mask;
+    }
+    return null;
+  }
+
+  void put(final long key, final V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("null values are not supported");
+    }
+    int i = index(key);
+    while (values[i] != null) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size > values.length * LOAD_FACTOR) {
+      rehash(values.length << 1);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  V remove(final long key) {
+    int i = index(key);
+    while (values[i] != null) {
+      if (keys[i] == key) {
+        final V removed = (V) values[i];
+        shiftBack(i);
+        size--;
+        return removed;
+      }
+      i = (i + 1) & mask;
+    }
+    return null;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  // Backward shift deletion keeps probe sequences intact without tombstones.
+  private void shiftBack(int gap) {
+    int i = (gap + 1) & mask;
+    while (values[i] != null) {
+      final int home = index(keys[i]);
+      if (((i - home) & mask) >= ((i - gap) & mask)) {
+        keys[gap] = keys[i];
+        values[gap] = values[i];
+        gap = i;
+      }
+      i = (i + 1) & mask;
+    }
+    values[gap] = null;
+  }
+
+  private int index(final long key) {
+    final long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  private void rehash(final int capacity) {
+    final long[] oldKeys = keys;
+    final Object[] oldValues = values;
+    allocate(capacity);
+    for (int j = 0; j < oldValues.length; j++) {
+      if (oldValues[j] != null) {
+        int i = index(oldKeys[j]);
+        while (values[i] != null) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = oldKeys[j];
+        values[i] = oldValues[j];
+      }
+    }
+  }
+
+  private void allocate(final int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+  }
+}
@@ -0,0 +1,77 @@
+package com.antmendoza.loader;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import io.temporal.api.common.v1.Payload;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized size of the {@link Payload}s nested anywhere in a message: inputs, results, failure
+ * details, headers, memos and search attributes.
+ *
+ * <p>Only the fields whose type can contain a payload are visited, they are computed once per
+ * message type.
+ */
+final class PayloadBytes {
+
+  private static final Map<Descriptor, List<FieldDescriptor>> PAYLOAD_FIELDS =
+      new ConcurrentHashMap<>();
+
+  private PayloadBytes() {}
+
+  static long of(final Message message) {
+    if (message instanceof Payload) {
+      return message.getSerializedSize();
+    }
+    long bytes = 0;
+    for (final FieldDescriptor field : payloadFields(message.getDescriptorForType())) {
+      if (field.isRepeated()) {
+        final int count = message.getRepeatedFieldCount(field);
+        for (int i = 0; i < count; i++) {
+          bytes += of((Message) message.getRepeatedField(field, i));
+        }
+      } else if (message.hasField(field)) {
+        bytes += of((Message) message.getField(field));
+      }
+    }
+    return bytes;
+  }
+
+  private static List<FieldDescriptor> payloadFields(final Descriptor descriptor) {
+    List<FieldDescriptor> fields = PAYLOAD_FIELDS.get(descriptor);
+    if (fields == null) {
+      fields = new ArrayList<>();
+      for (final FieldDescriptor field : descriptor.getFields()) {
+        if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE
+            && containsPayload(field.getMessageType(), new HashSet<>())) {
+          fields.add(field);
+        }
+      }
+      PAYLOAD_FIELDS.putIfAbsent(descriptor, fields);
+    }
+    return fields;
+  }
+
+  private static boolean containsPayload(final Descriptor descriptor, final Set<Descriptor> seen) {
+    if (descriptor.equals(Payload.getDescriptor())) {
+      return true;
+    }
+    // messages like Failure nest themselves
+    if (!seen.add(descriptor)) {
+      return false;
+    }
+    for (final FieldDescriptor field : descriptor.getFields()) {
+      if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE
+          && containsPayload(field.getMessageType(), seen)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,95 @@
+package com.antmendoza.loader;
+
+import com.github.luben.zstd.ZstdInputStream;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.history.v1.History;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads a history written by {@link ProtoHistoryWriter} event by event. Zstd compressed files are
+ * detected by their frame magic number, whatever their extension.
+ *
+ * <p>Unlike json exports the file keeps the workflow id of the execution.
+ */
+public class ProtoHistoryLoaderFromFile {
+
+  private static final int ZSTD_MAGIC = 0xFD2FB528;
+
+  private final Path filePath;
+
+  public ProtoHistoryLoaderFromFile(final Path filePath) {
+    this.filePath = filePath;
+  }
+
+  /** Whether the file name has one of the {@link ProtoHistoryWriter} extensions. */
+  public static boolean isProtoHistory(final Path filePath) {
+    final String name = filePath.getFileName().toString();
+    return name.endsWith(ProtoHistoryWriter.EXTENSION)
+        || name.endsWith(ProtoHistoryWriter.ZSTD_EXTENSION);
+  }
+
+  public WorkflowExecutionHistoryData read() {
+    try (InputStream in = open()) {
+      final WorkflowExecution execution = WorkflowExecution.parseDelimitedFrom(in);
+      final WorkflowExecutionHistoryData workflowExecutionHistoryData =
+          new WorkflowExecutionHistoryData(execution.getWorkflowId());
+      readEvents(in, workflowExecutionHistoryData::addEvent);
+      return workflowExecutionHistoryData;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Pushes every event in the file to the consumer, in history order. */
+  public void read(final Consumer<HistoryEvent> consumer) {
+    try (InputStream in = open()) {
+      WorkflowExecution.parseDelimitedFrom(in);
+      readEvents(in, consumer);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  public WorkflowExecutionHistory readHistory() {
+    try (InputStream in = open()) {
+      final WorkflowExecution execution = WorkflowExecution.parseDelimitedFrom(in);
+      final History.Builder history = History.newBuilder();
+      readEvents(in, history::addEvents);
+      return new WorkflowExecutionHistory(history.build(), execution.getWorkflowId());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private InputStream open() throws IOException {
+    final InputStream in = new BufferedInputStream(Files.newInputStream(filePath));
+    in.mark(Integer.BYTES);
+    final byte[] magic = in.readNBytes(Integer.BYTES);
+    in.reset();
+    // the frame magic number is little endian
+    final boolean zstd =
+        magic.length == Integer.BYTES
+            && ((magic[0] & 0xFF)
+                    | (magic[1] & 0xFF) << 8
+                    | (magic[2] & 0xFF) << 16
+                    | (magic[3] & 0xFF) << 24)
+                == ZSTD_MAGIC;
+    return zstd ? new BufferedInputStream(new ZstdInputStream(in)) : in;
+  }
+
+  private static void readEvents(final InputStream in, final Consumer<HistoryEvent> consumer)
+      throws IOException {
+    HistoryEvent event;
+    // null at the end of the stream
+    while ((event = HistoryEvent.parseDelimitedFrom(in)) != null) {
+      consumer.accept(event);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.antmendoza.loader;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a history in the binary format read by {@link ProtoHistoryLoaderFromFile}: the {@link
+ * WorkflowExecution} followed by every {@link HistoryEvent}, each one length delimited protobuf,
+ * optionally inside a zstd frame.
+ *
+ * <p>Events are written as they are received, so exporters can write a history page by page.
+ */
+public class ProtoHistoryWriter implements Closeable {
+
+  public static final String EXTENSION = ".binpb";
+  public static final String ZSTD_EXTENSION = ".binpb.zst";
+
+  public enum Compression {
+    NONE,
+    ZSTD
+  }
+
+  private final OutputStream out;
+
+  public ProtoHistoryWriter(
+      final Path filePath, final WorkflowExecution execution, final Compression compression) {
+    try {
+      final OutputStream file = new BufferedOutputStream(Files.newOutputStream(filePath));
+      this.out = compression == Compression.ZSTD ? new ZstdOutputStream(file) : file;
+      execution.writeDelimitedTo(out);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Writes the whole history to {@code filePath}. */
+  public static void write(
+      final Path filePath,
+      final WorkflowExecutionHistory history,
+      final Compression compression) {
+    try (ProtoHistoryWriter writer =
+        new ProtoHistoryWriter(filePath, history.getWorkflowExecution(), compression)) {
+      history.getEvents().forEach(writer::write);
+    }
+  }
+
+  /** Events have to be written in history order. */
+  public void write(final HistoryEvent event) {
+    try {
+      event.writeDelimitedTo(out);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      out.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
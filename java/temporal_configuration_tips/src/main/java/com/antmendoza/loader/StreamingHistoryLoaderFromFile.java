@@ -0,0 +1,95 @@
+package com.antmendoza.loader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.protobuf.util.JsonFormat;
+import io.temporal.api.history.v1.History;
+import io.temporal.api.history.v1.HistoryEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads a workflow history json file event by event, without building the {@link History} for
+ * the whole file. Heap usage is bounded by the biggest event and the activities still in flight,
+ * not by the file size.
+ */
+public class StreamingHistoryLoaderFromFile {
+
+  /** Same workflowId {@link io.temporal.common.WorkflowExecutionHistory#fromJson} uses. */
+  static final String DEFAULT_WORKFLOW_ID = "workflow_id_in_replay";
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final JsonFormat.Parser PROTO_PARSER = JsonFormat.parser().ignoringUnknownFields();
+  private static final String PROTO_EVENT_TYPE = "\"eventType\":\"EVENT_TYPE_";
+
+  private final Path filePath;
+
+  public StreamingHistoryLoaderFromFile(final Path filePath) {
+    this.filePath = filePath;
+  }
+
+  public WorkflowExecutionHistoryData read() {
+    final WorkflowExecutionHistoryData workflowExecutionHistoryData =
+        new WorkflowExecutionHistoryData(DEFAULT_WORKFLOW_ID);
+    read(workflowExecutionHistoryData::addEvent);
+    return workflowExecutionHistoryData;
+  }
+
+  /** Pushes every event in the file to the consumer, in history order. */
+  public void read(final Consumer<HistoryEvent> consumer) {
+
+    try (InputStream in = Files.newInputStream(filePath);
+        JsonParser parser = JSON_FACTORY.createParser(in)) {
+
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Expected a json object in " + filePath);
+      }
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.currentName();
+        final JsonToken value = parser.nextToken();
+        if ("events".equals(field) && value == JsonToken.START_ARRAY) {
+          readEvents(parser, consumer);
+        } else {
+          parser.skipChildren();
+        }
+      }
+
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static void readEvents(final JsonParser parser, final Consumer<HistoryEvent> consumer)
+      throws IOException {
+    // reused for every event, it only grows up to the size of the biggest event
+    final StringWriter eventJson = new StringWriter();
+
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      eventJson.getBuffer().setLength(0);
+      try (JsonGenerator generator = JSON_FACTORY.createGenerator(eventJson)) {
+        generator.copyCurrentStructure(parser);
+      }
+      consumer.accept(parseEvent(eventJson.toString()));
+    }
+  }
+
+  private static HistoryEvent parseEvent(final String eventJson) throws IOException {
+    if (eventJson.contains(PROTO_EVENT_TYPE)) {
+      final HistoryEvent.Builder event = HistoryEvent.newBuilder();
+      PROTO_PARSER.merge(eventJson, event);
+      return event.build();
+    }
+
+    // older exports (tctl / web UI v1) use a different enum format
+    final History.Builder history = History.newBuilder();
+    PROTO_PARSER.merge(LegacyHistoryJson.toProtoJson("{\"events\":[" + eventJson + "]}"), history);
+    return history.getEvents(0);
+  }
+}
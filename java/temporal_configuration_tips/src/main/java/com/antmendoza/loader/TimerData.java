@@ -0,0 +1,70 @@
+package com.antmendoza.loader;
+
+import static com.antmendoza.loader.ActivityData.NOT_AVAILABLE;
+
+import io.temporal.api.enums.v1.EventType;
+import java.time.Duration;
+
+/**
+ * One durable timer, extracted from its started and fired or canceled events. Times that are not
+ * in the history yet are {@link ActivityData#NOT_AVAILABLE}.
+ */
+public record TimerData(
+    String workflowId,
+    String workflowType,
+    String timerId,
+    long startedEventId,
+    long startedTimeNanos,
+    long startToFireTimeoutNanos,
+    long closedTimeNanos,
+    EventType finalEventType) {
+
+  public boolean isFired() {
+    return finalEventType == EventType.EVENT_TYPE_TIMER_FIRED;
+  }
+
+  /** Time from the timer being started to it firing. */
+  public long startToFireNanos() {
+    return isFired() ? closedTimeNanos - startedTimeNanos : NOT_AVAILABLE;
+  }
+
+  /** How late the timer fired compared to its configured duration. */
+  public long driftNanos() {
+    return isFired() ? startToFireNanos() - startToFireTimeoutNanos : NOT_AVAILABLE;
+  }
+
+  public Duration startToFireLatency() {
+    return Duration.ofNanos(startToFireNanos());
+  }
+
+  public Duration drift() {
+    return Duration.ofNanos(driftNanos());
+  }
+
+  public Duration startToFireConfigValue() {
+    return Duration.ofNanos(startToFireTimeoutNanos);
+  }
+
+  public String entityDescription() {
+    return "TimerData{"
+        + "workflowId='"
+        + workflowId
+        + '\''
+        + ", timerId='"
+        + timerId
+        + '\''
+        + '}';
+  }
+
+  TimerData closed(final EventType finalEventType, final long closedTimeNanos) {
+    return new TimerData(
+        workflowId,
+        workflowType,
+        timerId,
+        startedEventId,
+        startedTimeNanos,
+        startToFireTimeoutNanos,
+        closedTimeNanos,
+        finalEventType);
+  }
+}
@@ -1,94 +1,428 @@
 package com.antmendoza.loader;
 
+import static com.antmendoza.loader.ActivityData.NOT_AVAILABLE;
+
+import io.temporal.api.enums.v1.EventType;
+import io.temporal.api.enums.v1.TaskQueueKind;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.api.history.v1.StartChildWorkflowExecutionInitiatedEventAttributes;
+import io.temporal.api.history.v1.TimerStartedEventAttributes;
+import io.temporal.api.history.v1.WorkflowTaskScheduledEventAttributes;
+import io.temporal.api.taskqueue.v1.TaskQueue;
 import io.temporal.common.WorkflowExecutionHistory;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 public class WorkflowExecutionHistoryData {
-  private final WorkflowExecutionHistory workflowExecutionHistory;
 
-  private final List<ActivityData> activityDataList = new ArrayList<>();
+  private final String workflowId;
+  private String workflowType = "";
+  // the queue workflow workers are configured with, sticky queues fall back to it
+  private String taskQueue = "";
+
+  private final ActivityDataStore activityDataStore;
+
+  // rows of the activities still waiting for a terminal event, keyed by the
+  // ActivityTaskScheduled event id
+  private final LongObjectHashMap<Integer> pendingActivities = new LongObjectHashMap<>();
+
+  private final List<WorkflowTaskData> workflowTasks = new ArrayList<>();
+  private final List<ChildWorkflowData> childWorkflows = new ArrayList<>();
+  private final List<TimerData> timers = new ArrayList<>();
+
+  // indexes in the lists above of the entries still waiting for a terminal event, keyed by the
+  // WorkflowTaskScheduled, StartChildWorkflowExecutionInitiated and TimerStarted event ids
+  private final LongObjectHashMap<Integer> pendingWorkflowTasks = new LongObjectHashMap<>();
+  private final LongObjectHashMap<Integer> pendingChildWorkflows = new LongObjectHashMap<>();
+  private final LongObjectHashMap<Integer> pendingTimers = new LongObjectHashMap<>();
 
   public WorkflowExecutionHistoryData(final WorkflowExecutionHistory workflowExecutionHistory) {
 
-    this.workflowExecutionHistory = workflowExecutionHistory;
-
-    this.load();
-  }
-
-  private void load() {
-
-    loadActivities();
-    //        loadChildWf();
-
-  }
-
-  private void loadActivities() {
-
-    this.workflowExecutionHistory
-        .getHistory()
-        .getEventsList()
-        .forEach(
-            e -> {
-              if (e.hasActivityTaskScheduledEventAttributes()) {
-                activityDataList.add(
-                    new ActivityData(
-                        workflowExecutionHistory.getWorkflowExecution().getWorkflowId(),
-                        e.getActivityTaskScheduledEventAttributes().getActivityId(),
-                        e));
-              }
-
-              if (e.hasActivityTaskStartedEventAttributes()) {
-                Optional<ActivityData> activityData =
-                    this.activityDataList.stream()
-                        .filter(ad -> ad.hasActivityTaskScheduledEvent(e.getEventId()))
-                        .findFirst();
-
-                if (activityData.isPresent()) {
-                  activityData.get().addActivityTaskStartedEvent(e);
-                }
-              }
-
-              if (e.hasActivityTaskStartedEventAttributes()) {
-                Optional<ActivityData> activityData =
-                    this.activityDataList.stream()
-                        .filter(
-                            ad ->
-                                ad.hasActivityTaskScheduledEvent(
-                                    e.getActivityTaskStartedEventAttributes()
-                                        .getScheduledEventId()))
-                        .findFirst();
-                if (activityData.isPresent()) {
-                  activityData.get().addActivityTaskStartedEvent(e);
-                }
-              }
-
-              if (e.hasActivityTaskCompletedEventAttributes()) {
-                Optional<ActivityData> activityData =
-                    this.activityDataList.stream()
-                        .filter(
-                            ad ->
-                                ad.hasActivityTaskScheduledEvent(
-                                    e.getActivityTaskCompletedEventAttributes()
-                                        .getScheduledEventId()))
-                        .findFirst();
-
-                if (activityData.isPresent()) {
-                  activityData.get().addActivityTaskFinalEvent(e);
-                }
-              }
-
-              // TODO
-              // if (e.hasActivityTaskCanceledEventAttributes()
-              //        || e.hasActivityTaskCompletedEventAttributes()
-              //        || e.hasActivityTaskFailedEventAttributes()
-              //        || e.hasActivityTaskTimedOutEventAttributes()
-
-            });
+    this(workflowExecutionHistory.getWorkflowExecution().getWorkflowId());
+
+    workflowExecutionHistory.getHistory().getEventsList().forEach(this::addEvent);
+  }
+
+  /** Empty data to be fed event by event, see {@link #addEvent(HistoryEvent)}. */
+  WorkflowExecutionHistoryData(final String workflowId) {
+    this(workflowId, ActivityDataStore.onHeap());
+  }
+
+  WorkflowExecutionHistoryData(final String workflowId, final ActivityDataStore activityDataStore) {
+    this.workflowId = workflowId;
+    this.activityDataStore = activityDataStore;
+  }
+
+  /** Events have to be added in history order. */
+  void addEvent(final HistoryEvent e) {
+    switch (e.getAttributesCase()) {
+      case WORKFLOW_EXECUTION_STARTED_EVENT_ATTRIBUTES:
+        workflowType = e.getWorkflowExecutionStartedEventAttributes().getWorkflowType().getName();
+        taskQueue = e.getWorkflowExecutionStartedEventAttributes().getTaskQueue().getName();
+        break;
+
+      case ACTIVITY_TASK_SCHEDULED_EVENT_ATTRIBUTES:
+        pendingActivities.put(
+            e.getEventId(), activityDataStore.addScheduled(workflowId, workflowType, e));
+        break;
+      case ACTIVITY_TASK_STARTED_EVENT_ATTRIBUTES:
+        {
+          final Integer row =
+              pendingActivities.get(
+                  e.getActivityTaskStartedEventAttributes().getScheduledEventId());
+          if (row != null) {
+            activityDataStore.setStarted(row, e);
+          }
+          break;
+        }
+      case ACTIVITY_TASK_COMPLETED_EVENT_ATTRIBUTES:
+        addFinalEvent(
+            e.getActivityTaskCompletedEventAttributes().getScheduledEventId(),
+            EventType.EVENT_TYPE_ACTIVITY_TASK_COMPLETED,
+            e);
+        break;
+      case ACTIVITY_TASK_FAILED_EVENT_ATTRIBUTES:
+        addFinalEvent(
+            e.getActivityTaskFailedEventAttributes().getScheduledEventId(),
+            EventType.EVENT_TYPE_ACTIVITY_TASK_FAILED,
+            e);
+        break;
+      case ACTIVITY_TASK_TIMED_OUT_EVENT_ATTRIBUTES:
+        addFinalEvent(
+            e.getActivityTaskTimedOutEventAttributes().getScheduledEventId(),
+            EventType.EVENT_TYPE_ACTIVITY_TASK_TIMED_OUT,
+            e);
+        break;
+      case ACTIVITY_TASK_CANCELED_EVENT_ATTRIBUTES:
+        addFinalEvent(
+            e.getActivityTaskCanceledEventAttributes().getScheduledEventId(),
+            EventType.EVENT_TYPE_ACTIVITY_TASK_CANCELED,
+            e);
+        break;
+
+      case WORKFLOW_TASK_SCHEDULED_EVENT_ATTRIBUTES:
+        {
+          final WorkflowTaskScheduledEventAttributes scheduled =
+              e.getWorkflowTaskScheduledEventAttributes();
+          final TaskQueue queue = scheduled.getTaskQueue();
+          final boolean sticky = queue.getKind() == TaskQueueKind.TASK_QUEUE_KIND_STICKY;
+          workflowTasks.add(
+              new WorkflowTaskData(
+                  workflowId,
+                  workflowType,
+                  // sticky queues are named after the worker, older servers don't set normalName
+                  !sticky
+                      ? queue.getName()
+                      : !queue.getNormalName().isEmpty() ? queue.getNormalName() : taskQueue,
+                  sticky,
+                  scheduled.getAttempt(),
+                  e.getEventId(),
+                  ActivityData.toNanos(e.getEventTime()),
+                  NOT_AVAILABLE,
+                  NOT_AVAILABLE,
+                  ActivityData.toNanos(scheduled.getStartToCloseTimeout()),
+                  EventType.EVENT_TYPE_UNSPECIFIED));
+          pendingWorkflowTasks.put(e.getEventId(), workflowTasks.size() - 1);
+          break;
+        }
+      case WORKFLOW_TASK_STARTED_EVENT_ATTRIBUTES:
+        {
+          final Integer index =
+              pendingWorkflowTasks.get(
+                  e.getWorkflowTaskStartedEventAttributes().getScheduledEventId());
+          if (index != null) {
+            workflowTasks.set(
+                index, workflowTasks.get(index).started(ActivityData.toNanos(e.getEventTime())));
+          }
+          break;
+        }
+      case WORKFLOW_TASK_COMPLETED_EVENT_ATTRIBUTES:
+        closeWorkflowTask(
+            e.getWorkflowTaskCompletedEventAttributes().getScheduledEventId(),
+            EventType.EVENT_TYPE_WORKFLOW_TASK_COMPLETED,
+            e);
+        break;
+      case WORKFLOW_TASK_FAILED_EVENT_ATTRIBUTES:
+        closeWorkflowTask(
+            e.getWorkflowTaskFailedEventAttributes().getScheduledEventId(),
+            EventType.EVENT_TYPE_WORKFLOW_TASK_FAILED,
+            e);
+        break;
+      case WORKFLOW_TASK_TIMED_OUT_EVENT_ATTRIBUTES:
+        closeWorkflowTask(
+            e.getWorkflowTaskTimedOutEventAttributes().getScheduledEventId(),
+            EventType.EVENT_TYPE_WORKFLOW_TASK_TIMED_OUT,
+            e);
+        break;
+
+      case START_CHILD_WORKFLOW_EXECUTION_INITIATED_EVENT_ATTRIBUTES:
+        {
+          final StartChildWorkflowExecutionInitiatedEventAttributes initiated =
+              e.getStartChildWorkflowExecutionInitiatedEventAttributes();
+          childWorkflows.add(
+              new ChildWorkflowData(
+                  workflowId,
+                  workflowType,
+                  initiated.getWorkflowId(),
+                  initiated.getWorkflowType().getName(),
+                  e.getEventId(),
+                  ActivityData.toNanos(e.getEventTime()),
+                  NOT_AVAILABLE,
+                  NOT_AVAILABLE,
+                  EventType.EVENT_TYPE_UNSPECIFIED));
+          pendingChildWorkflows.put(e.getEventId(), childWorkflows.size() - 1);
+          break;
+        }
+      case CHILD_WORKFLOW_EXECUTION_STARTED_EVENT_ATTRIBUTES:
+        {
+          final Integer index =
+              pendingChildWorkflows.get(
+                  e.getChildWorkflowExecutionStartedEventAttributes().getInitiatedEventId());
+          if (index != null) {
+            childWorkflows.set(
+                index, childWorkflows.get(index).started(ActivityData.toNanos(e.getEventTime())));
+          }
+          break;
+        }
+      case START_CHILD_WORKFLOW_EXECUTION_FAILED_EVENT_ATTRIBUTES:
+        closeChildWorkflow(
+            e.getStartChildWorkflowExecutionFailedEventAttributes().getInitiatedEventId(),
+            EventType.EVENT_TYPE_START_CHILD_WORKFLOW_EXECUTION_FAILED,
+            e);
+        break;
+      case CHILD_WORKFLOW_EXECUTION_COMPLETED_EVENT_ATTRIBUTES:
+        closeChildWorkflow(
+            e.getChildWorkflowExecutionCompletedEventAttributes().getInitiatedEventId(),
+            EventType.EVENT_TYPE_CHILD_WORKFLOW_EXECUTION_COMPLETED,
+            e);
+        break;
+      case CHILD_WORKFLOW_EXECUTION_FAILED_EVENT_ATTRIBUTES:
+        closeChildWorkflow(
+            e.getChildWorkflowExecutionFailedEventAttributes().getInitiatedEventId(),
+            EventType.EVENT_TYPE_CHILD_WORKFLOW_EXECUTION_FAILED,
+            e);
+        break;
+      case CHILD_WORKFLOW_EXECUTION_CANCELED_EVENT_ATTRIBUTES:
+        closeChildWorkflow(
+            e.getChildWorkflowExecutionCanceledEventAttributes().getInitiatedEventId(),
+            EventType.EVENT_TYPE_CHILD_WORKFLOW_EXECUTION_CANCELED,
+            e);
+        break;
+      case CHILD_WORKFLOW_EXECUTION_TIMED_OUT_EVENT_ATTRIBUTES:
+        closeChildWorkflow(
+            e.getChildWorkflowExecutionTimedOutEventAttributes().getInitiatedEventId(),
+            EventType.EVENT_TYPE_CHILD_WORKFLOW_EXECUTION_TIMED_OUT,
+            e);
+        break;
+      case CHILD_WORKFLOW_EXECUTION_TERMINATED_EVENT_ATTRIBUTES:
+        closeChildWorkflow(
+            e.getChildWorkflowExecutionTerminatedEventAttributes().getInitiatedEventId(),
+            EventType.EVENT_TYPE_CHILD_WORKFLOW_EXECUTION_TERMINATED,
+            e);
+        break;
+
+      case TIMER_STARTED_EVENT_ATTRIBUTES:
+        {
+          final TimerStartedEventAttributes started = e.getTimerStartedEventAttributes();
+          timers.add(
+              new TimerData(
+                  workflowId,
+                  workflowType,
+                  started.getTimerId(),
+                  e.getEventId(),
+                  ActivityData.toNanos(e.getEventTime()),
+                  ActivityData.toNanos(started.getStartToFireTimeout()),
+                  NOT_AVAILABLE,
+                  EventType.EVENT_TYPE_UNSPECIFIED));
+          pendingTimers.put(e.getEventId(), timers.size() - 1);
+          break;
+        }
+      case TIMER_FIRED_EVENT_ATTRIBUTES:
+        closeTimer(
+            e.getTimerFiredEventAttributes().getStartedEventId(),
+            EventType.EVENT_TYPE_TIMER_FIRED,
+            e);
+        break;
+      case TIMER_CANCELED_EVENT_ATTRIBUTES:
+        closeTimer(
+            e.getTimerCanceledEventAttributes().getStartedEventId(),
+            EventType.EVENT_TYPE_TIMER_CANCELED,
+            e);
+        break;
+
+      default:
+        break;
+    }
+  }
+
+  private void addFinalEvent(
+      final long scheduledEventId, final EventType finalEventType, final HistoryEvent finalEvent) {
+    final Integer row = pendingActivities.remove(scheduledEventId);
+    if (row != null) {
+      activityDataStore.setClosed(row, finalEventType, finalEvent);
+    }
+  }
+
+  private void closeWorkflowTask(
+      final long scheduledEventId, final EventType finalEventType, final HistoryEvent finalEvent) {
+    final Integer index = pendingWorkflowTasks.remove(scheduledEventId);
+    if (index != null) {
+      workflowTasks.set(
+          index,
+          workflowTasks
+              .get(index)
+              .closed(finalEventType, ActivityData.toNanos(finalEvent.getEventTime())));
+    }
+  }
+
+  private void closeChildWorkflow(
+      final long initiatedEventId, final EventType finalEventType, final HistoryEvent finalEvent) {
+    final Integer index = pendingChildWorkflows.remove(initiatedEventId);
+    if (index != null) {
+      childWorkflows.set(
+          index,
+          childWorkflows
+              .get(index)
+              .closed(finalEventType, ActivityData.toNanos(finalEvent.getEventTime())));
+    }
   }
 
+  private void closeTimer(
+      final long startedEventId, final EventType finalEventType, final HistoryEvent finalEvent) {
+    final Integer index = pendingTimers.remove(startedEventId);
+    if (index != null) {
+      timers.set(
+          index,
+          timers
+              .get(index)
+              .closed(finalEventType, ActivityData.toNanos(finalEvent.getEventTime())));
+    }
+  }
+
+  /**
+   * Writes the extracted data, not the events, see {@link #readFrom(DataInput)}. Correlation state
+   * is not written, the data must not be fed more events once read back.
+   */
+  void writeTo(final DataOutput out) throws IOException {
+    out.writeUTF(workflowId);
+    out.writeUTF(workflowType);
+    activityDataStore.writeTo(out);
+
+    out.writeInt(workflowTasks.size());
+    for (final WorkflowTaskData wt : workflowTasks) {
+      out.writeUTF(wt.taskQueue());
+      out.writeBoolean(wt.sticky());
+      out.writeInt(wt.attempt());
+      out.writeLong(wt.scheduledEventId());
+      out.writeLong(wt.scheduledTimeNanos());
+      out.writeLong(wt.startedTimeNanos());
+      out.writeLong(wt.closedTimeNanos());
+      out.writeLong(wt.startToCloseTimeoutNanos());
+      out.writeInt(wt.finalEventType().getNumber());
+    }
+
+    out.writeInt(childWorkflows.size());
+    for (final ChildWorkflowData cw : childWorkflows) {
+      out.writeUTF(cw.childWorkflowId());
+      out.writeUTF(cw.childWorkflowType());
+      out.writeLong(cw.initiatedEventId());
+      out.writeLong(cw.initiatedTimeNanos());
+      out.writeLong(cw.startedTimeNanos());
+      out.writeLong(cw.closedTimeNanos());
+      out.writeInt(cw.finalEventType().getNumber());
+    }
+
+    out.writeInt(timers.size());
+    for (final TimerData timer : timers) {
+      out.writeUTF(timer.timerId());
+      out.writeLong(timer.startedEventId());
+      out.writeLong(timer.startedTimeNanos());
+      out.writeLong(timer.startToFireTimeoutNanos());
+      out.writeLong(timer.closedTimeNanos());
+      out.writeInt(timer.finalEventType().getNumber());
+    }
+  }
+
+  static WorkflowExecutionHistoryData readFrom(final DataInput in) throws IOException {
+    final WorkflowExecutionHistoryData data = new WorkflowExecutionHistoryData(in.readUTF());
+    data.workflowType = in.readUTF();
+    data.activityDataStore.readFrom(in);
+
+    for (int i = in.readInt(); i > 0; i--) {
+      data.workflowTasks.add(
+          new WorkflowTaskData(
+              data.workflowId,
+              data.workflowType,
+              in.readUTF(),
+              in.readBoolean(),
+              in.readInt(),
+              in.readLong(),
+              in.readLong(),
+              in.readLong(),
+              in.readLong(),
+              in.readLong(),
+              EventType.forNumber(in.readInt())));
+    }
+
+    for (int i = in.readInt(); i > 0; i--) {
+      data.childWorkflows.add(
+          new ChildWorkflowData(
+              data.workflowId,
+              data.workflowType,
+              in.readUTF(),
+              in.readUTF(),
+              in.readLong(),
+              in.readLong(),
+              in.readLong(),
+              in.readLong(),
+              EventType.forNumber(in.readInt())));
+    }
+
+    for (int i = in.readInt(); i > 0; i--) {
+      data.timers.add(
+          new TimerData(
+              data.workflowId,
+              data.workflowType,
+              in.readUTF(),
+              in.readLong(),
+              in.readLong(),
+              in.readLong(),
+              in.readLong(),
+              EventType.forNumber(in.readInt())));
+    }
+    return data;
+  }
+
+  public String getWorkflowType() {
+    return workflowType;
+  }
+
+  /** Activities in the order they were scheduled. */
+  public ActivityDataStore getActivityDataStore() {
+    return activityDataStore;
+  }
+
+  /** Read only view over {@link #getActivityDataStore()}. */
   public List<ActivityData> getActivityDataList() {
-    return activityDataList;
+    return activityDataStore.asList();
+  }
+
+  /** Workflow tasks in the order they were scheduled. */
+  public List<WorkflowTaskData> getWorkflowTasks() {
+    return Collections.unmodifiableList(workflowTasks);
+  }
+
+  /** Child workflows in the order they were initiated. */
+  public List<ChildWorkflowData> getChildWorkflows() {
+    return Collections.unmodifiableList(childWorkflows);
+  }
+
+  /** Timers in the order they were started. */
+  public List<TimerData> getTimers() {
+    return Collections.unmodifiableList(timers);
   }
 }
@@ -0,0 +1,97 @@
+package com.antmendoza.loader;
+
+import static com.antmendoza.loader.ActivityData.NOT_AVAILABLE;
+
+import io.temporal.api.enums.v1.EventType;
+import java.time.Duration;
+
+/**
+ * Timing data of one workflow task, extracted from its scheduled, started and final events. Times
+ * that are not in the history yet are {@link ActivityData#NOT_AVAILABLE}.
+ *
+ * <p>The task queue is the one the workers poll, also for tasks scheduled on the sticky queue of
+ * the worker that cached the workflow, see {@link #sticky()}.
+ */
+public record WorkflowTaskData(
+    String workflowId,
+    String workflowType,
+    String taskQueue,
+    boolean sticky,
+    int attempt,
+    long scheduledEventId,
+    long scheduledTimeNanos,
+    long startedTimeNanos,
+    long closedTimeNanos,
+    long startToCloseTimeoutNanos,
+    EventType finalEventType) {
+
+  public boolean isStarted() {
+    return startedTimeNanos != NOT_AVAILABLE;
+  }
+
+  public boolean isClosed() {
+    return finalEventType != EventType.EVENT_TYPE_UNSPECIFIED;
+  }
+
+  /** Time the task waited in the task queue for a worker. */
+  public long scheduleToStartNanos() {
+    return isStarted() ? startedTimeNanos - scheduledTimeNanos : NOT_AVAILABLE;
+  }
+
+  /** Time the worker took to process the task. */
+  public long startToCloseNanos() {
+    return isStarted() && isClosed() ? closedTimeNanos - startedTimeNanos : NOT_AVAILABLE;
+  }
+
+  public Duration scheduleToStartLatency() {
+    return Duration.ofNanos(scheduleToStartNanos());
+  }
+
+  public Duration startToCloseLatency() {
+    return Duration.ofNanos(startToCloseNanos());
+  }
+
+  public Duration startToCloseConfigValue() {
+    return Duration.ofNanos(startToCloseTimeoutNanos);
+  }
+
+  public String entityDescription() {
+    return "WorkflowTaskData{"
+        + "workflowId='"
+        + workflowId
+        + '\''
+        + ", scheduledEventId="
+        + scheduledEventId
+        + '}';
+  }
+
+  WorkflowTaskData started(final long startedTimeNanos) {
+    return new WorkflowTaskData(
+        workflowId,
+        workflowType,
+        taskQueue,
+        sticky,
+        attempt,
+        scheduledEventId,
+        scheduledTimeNanos,
+        startedTimeNanos,
+        closedTimeNanos,
+        startToCloseTimeoutNanos,
+        finalEventType);
+  }
+
+  WorkflowTaskData closed(final EventType finalEventType, final long closedTimeNanos) {
+    return new WorkflowTaskData(
+        workflowId,
+        workflowType,
+        taskQueue,
+        sticky,
+        attempt,
+        scheduledEventId,
+        scheduledTimeNanos,
+        startedTimeNanos,
+        closedTimeNanos,
+        startToCloseTimeoutNanos,
+        finalEventType);
+  }
+}
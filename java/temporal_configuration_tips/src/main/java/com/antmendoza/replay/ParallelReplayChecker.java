@@ -0,0 +1,114 @@
+package com.antmendoza.replay;
+
+import com.antmendoza.loader.HistoryLoaderFromDir;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.ReplayResults;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Replays a corpus of histories against the current workflow code, to catch non deterministic
+ * changes before they are deployed.
+ *
+ * <p>The corpus is split in shards of consecutive files, replayed by a fork join pool of {@code
+ * parallelism} threads. Each thread takes one of {@code parallelism} workers for the whole shard
+ * and replays it with {@link WorkflowReplayer#replayWorkflowExecutions(Iterable, boolean, Worker)},
+ * reading each history only when its turn comes, so at most {@code parallelism} histories are in
+ * memory. Shards share nothing but the pool, replay scales with the number of cores.
+ */
+public class ParallelReplayChecker implements Closeable {
+
+  public static final int DEFAULT_SHARD_SIZE = 100;
+
+  static final String TASK_QUEUE = "parallel-replay-checker";
+
+  private final TestWorkflowEnvironment environment;
+  private final BlockingQueue<Worker> workers;
+  private final int parallelism;
+
+  /** @param workflowImplementationTypes implementations of the workflow types to replay */
+  public ParallelReplayChecker(
+      final int parallelism, final Class<?>... workflowImplementationTypes) {
+    this.parallelism = parallelism;
+    environment = TestWorkflowEnvironment.newInstance();
+    workers = new ArrayBlockingQueue<>(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      final Worker worker = environment.newWorker(TASK_QUEUE + "-" + i);
+      worker.registerWorkflowImplementationTypes(workflowImplementationTypes);
+      workers.add(worker);
+    }
+  }
+
+  public ReplayCheckResult check(final Path directory) {
+    return check(directory, DEFAULT_SHARD_SIZE);
+  }
+
+  /** Replays every history in the directory, json or binary, in shards of {@code shardSize}. */
+  public ReplayCheckResult check(final Path directory, final int shardSize) {
+    final List<Path> files = ReplayCostEstimator.listFiles(directory);
+    final List<Callable<ReplayCheckResult>> shards = new ArrayList<>();
+    for (int from = 0; from < files.size(); from += shardSize) {
+      final List<Path> shard = files.subList(from, Math.min(files.size(), from + shardSize));
+      shards.add(() -> replay(shard));
+    }
+
+    final ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      final ReplayCheckResult result = new ReplayCheckResult();
+      for (final Future<ReplayCheckResult> shard : pool.invokeAll(shards)) {
+        result.merge(shard.get());
+      }
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Override
+  public void close() {
+    environment.close();
+  }
+
+  private ReplayCheckResult replay(final List<Path> shard) throws Exception {
+    // histories are identified by file name, json files have no workflow id
+    final Iterable<WorkflowExecutionHistory> histories =
+        () ->
+            shard.stream()
+                .map(
+                    file ->
+                        new WorkflowExecutionHistory(
+                            HistoryLoaderFromDir.readHistory(file).getHistory(),
+                            file.getFileName().toString()))
+                .iterator();
+
+    final Worker worker = workers.take();
+    try {
+      final ReplayResults replayResults =
+          WorkflowReplayer.replayWorkflowExecutions(histories, false, worker);
+      final ReplayCheckResult result = new ReplayCheckResult();
+      result.recordReplayed(shard.size());
+      for (final ReplayResults.ReplayError error : replayResults.allErrors()) {
+        result.recordFailure(error.workflowId, error.exception);
+      }
+      return result;
+    } finally {
+      workers.add(worker);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.antmendoza.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of replaying a corpus of histories, failures grouped by the site that raised them.
+ *
+ * <p>A site is the type and message of the root cause, with ids and numbers masked, and its first
+ * stack frame outside the SDK and the JDK, or its first frame if all are, like for non
+ * deterministic commands. One non deterministic change shows up as a single group however many
+ * histories it breaks.
+ *
+ * <p>Instances are not thread safe. To aggregate in parallel, build one instance per thread and
+ * {@link #merge(ReplayCheckResult)} them.
+ */
+public class ReplayCheckResult {
+
+  static final int EXAMPLES = 5;
+
+  private static final Pattern UUID =
+      Pattern.compile("\\p{XDigit}{8}(-\\p{XDigit}{4}){3}-\\p{XDigit}{12}");
+  private static final Pattern NUMBER = Pattern.compile("\\d+");
+  private static final String QUERY_ERROR = "error=";
+
+  private final Map<String, Site> sites = new HashMap<>();
+  private long histories;
+  private long failures;
+
+  void recordReplayed(final long histories) {
+    this.histories += histories;
+  }
+
+  void recordFailure(final String workflowId, final Throwable failure) {
+    failures++;
+    final Site site = sites.computeIfAbsent(site(failure), k -> new Site());
+    site.count++;
+    if (site.workflowIds.size() < EXAMPLES) {
+      site.workflowIds.add(workflowId);
+    }
+  }
+
+  /** Adds the results of {@code other}, which must not be used afterwards. */
+  public ReplayCheckResult merge(final ReplayCheckResult other) {
+    histories += other.histories;
+    failures += other.failures;
+    other.sites.forEach(
+        (key, otherSite) -> {
+          final Site site = sites.computeIfAbsent(key, k -> new Site());
+          site.count += otherSite.count;
+          for (final String workflowId : otherSite.workflowIds) {
+            if (site.workflowIds.size() < EXAMPLES) {
+              site.workflowIds.add(workflowId);
+            }
+          }
+        });
+    return this;
+  }
+
+  public long histories() {
+    return histories;
+  }
+
+  public long failures() {
+    return failures;
+  }
+
+  public boolean isDeterministic() {
+    return failures == 0;
+  }
+
+  /** Failure sites, the one that broke the most histories first. */
+  public List<FailureGroup> groups() {
+    final List<FailureGroup> groups = new ArrayList<>();
+    sites.forEach(
+        (site, accumulator) ->
+            groups.add(
+                new FailureGroup(site, accumulator.count, List.copyOf(accumulator.workflowIds))));
+    groups.sort(Comparator.comparingLong(FailureGroup::count).reversed());
+    return groups;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder report = new StringBuilder();
+    report.append(
+        String.format(
+            "%d histories replayed, %d failed in %d sites%n", histories, failures, sites.size()));
+    for (final FailureGroup group : groups()) {
+      report.append(
+          String.format(
+              "%d histories, e.g. %s%n  %s%n", group.count, group.workflowIds, group.site));
+    }
+    return report.toString();
+  }
+
+  static String site(final Throwable failure) {
+    Throwable root = failure;
+    while (root.getCause() != null && root.getCause() != root) {
+      root = root.getCause();
+    }
+
+    String summary = root.getClass().getName() + ": " + root.getMessage();
+    List<String> frames =
+        Arrays.stream(root.getStackTrace())
+            .map(StackTraceElement::toString)
+            .collect(Collectors.toList());
+    // replay failures come back as query failures, with the original exception as text
+    final int error = summary.indexOf(QUERY_ERROR);
+    if (error >= 0) {
+      final String[] lines = summary.substring(error + QUERY_ERROR.length()).split("\n");
+      summary = lines[0];
+      frames =
+          Arrays.stream(lines)
+              .map(String::trim)
+              .filter(line -> line.startsWith("at "))
+              .map(line -> line.substring("at ".length()))
+              .collect(Collectors.toList());
+    }
+
+    final String frame =
+        frames.stream()
+            .filter(f -> !isLibraryFrame(f))
+            .findFirst()
+            .orElse(frames.isEmpty() ? "unknown" : frames.get(0));
+    return NUMBER.matcher(UUID.matcher(summary).replaceAll("<uuid>")).replaceAll("#")
+        + System.lineSeparator()
+        + "    at "
+        + frame;
+  }
+
+  private static boolean isLibraryFrame(final String frame) {
+    return frame.startsWith("io.temporal.")
+        || frame.startsWith("java.")
+        || frame.startsWith("jdk.")
+        || frame.startsWith("sun.")
+        || frame.startsWith(ReplayCheckResult.class.getPackageName() + ".");
+  }
+
+  /** Histories that failed at the same site, with up to {@value #EXAMPLES} of their ids. */
+  public record FailureGroup(String site, long count, List<String> workflowIds) {}
+
+  private static class Site {
+    private long count;
+    private final List<String> workflowIds = new ArrayList<>(EXAMPLES);
+  }
+}
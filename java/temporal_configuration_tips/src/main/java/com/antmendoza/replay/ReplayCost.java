@@ -0,0 +1,17 @@
+package com.antmendoza.replay;
+
+/**
+ * Cost of replaying one history, what a worker pays to rebuild a workflow evicted from its cache.
+ *
+ * <p>{@code allocatedBytes} is {@link #NOT_AVAILABLE} if the JVM does not measure thread
+ * allocation. {@code failure} is null if the history replayed.
+ */
+public record ReplayCost(
+    String workflowType, long events, long wallNanos, long allocatedBytes, Throwable failure) {
+
+  public static final long NOT_AVAILABLE = -1;
+
+  public boolean isFailed() {
+    return failure != null;
+  }
+}
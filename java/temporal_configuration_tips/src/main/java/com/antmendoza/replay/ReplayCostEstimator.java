@@ -0,0 +1,115 @@
+package com.antmendoza.replay;
+
+import com.antmendoza.loader.HistoryLoaderFromDir;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays histories with {@link WorkflowReplayer} and measures what each one costs a worker that
+ * has to rebuild the workflow after evicting it from its cache: wall time and bytes allocated.
+ *
+ * <p>Replays run one at a time, so allocation is measured across every thread of the JVM, the
+ * workflow code runs in threads of the worker. Workflow threads that end during a replay take their
+ * allocations with them, so allocations are a lower bound.
+ */
+public class ReplayCostEstimator implements Closeable {
+
+  static final String TASK_QUEUE = "replay-cost-estimator";
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final TestWorkflowEnvironment environment;
+  private final Worker worker;
+
+  /** @param workflowImplementationTypes implementations of the workflow types to replay */
+  public ReplayCostEstimator(final Class<?>... workflowImplementationTypes) {
+    environment = TestWorkflowEnvironment.newInstance();
+    worker = environment.newWorker(TASK_QUEUE);
+    worker.registerWorkflowImplementationTypes(workflowImplementationTypes);
+  }
+
+  public ReplayCost replay(final WorkflowExecutionHistory history) {
+    final List<HistoryEvent> events = history.getEvents();
+    final String workflowType =
+        events.isEmpty()
+            ? ""
+            : events
+                .get(0)
+                .getWorkflowExecutionStartedEventAttributes()
+                .getWorkflowType()
+                .getName();
+
+    final long allocatedBefore = allocatedBytes();
+    final long start = System.nanoTime();
+    Throwable failure = null;
+    try {
+      WorkflowReplayer.replayWorkflowExecution(history, worker);
+    } catch (Exception e) {
+      failure = e;
+    }
+    final long wallNanos = System.nanoTime() - start;
+    final long allocatedAfter = allocatedBytes();
+
+    return new ReplayCost(
+        workflowType,
+        events.size(),
+        wallNanos,
+        allocatedBefore == ReplayCost.NOT_AVAILABLE
+            ? ReplayCost.NOT_AVAILABLE
+            : Math.max(0, allocatedAfter - allocatedBefore),
+        failure);
+  }
+
+  /**
+   * Replays every history in the directory, json or binary, after replaying the first {@code
+   * warmup} ones without measuring them, so the JIT compiles the replay path first.
+   */
+  public ReplayCostStats replay(final Path directory, final int warmup) {
+    final ReplayCostStats stats = new ReplayCostStats();
+    final List<Path> files = listFiles(directory);
+    for (int i = 0; i < Math.min(warmup, files.size()); i++) {
+      replay(HistoryLoaderFromDir.readHistory(files.get(i)));
+    }
+    for (final Path file : files) {
+      stats.record(replay(HistoryLoaderFromDir.readHistory(file)));
+    }
+    return stats;
+  }
+
+  @Override
+  public void close() {
+    environment.close();
+  }
+
+  static List<Path> listFiles(final Path directory) {
+    try (Stream<Path> stream = Files.list(directory)) {
+      return stream.filter(file -> !Files.isDirectory(file)).sorted().collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static long allocatedBytes() {
+    if (!THREADS.isThreadAllocatedMemorySupported() || !THREADS.isThreadAllocatedMemoryEnabled()) {
+      return ReplayCost.NOT_AVAILABLE;
+    }
+    long total = 0;
+    for (final long bytes : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+      // -1 for threads that ended since they were listed
+      total += Math.max(0, bytes);
+    }
+    return total;
+  }
+}
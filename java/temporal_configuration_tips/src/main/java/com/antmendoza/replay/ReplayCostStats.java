@@ -0,0 +1,68 @@
+package com.antmendoza.replay;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replay costs per workflow type.
+ *
+ * <p>A worker replays the whole history of a workflow each time it gets a task for a workflow
+ * evicted from its cache (WorkerFactoryOptions.workflowCacheSize, workflow-cache.max-instances with
+ * Spring Boot). The more expensive a workflow type is to replay, the more it pays to size the cache
+ * for all its open workflows.
+ *
+ * <p>Instances are not thread safe. To aggregate in parallel, build one instance per thread and
+ * {@link #merge(ReplayCostStats)} them.
+ */
+public class ReplayCostStats {
+
+  private final Map<String, WorkflowTypeReplayCost> costs = new HashMap<>();
+
+  public void record(final ReplayCost replayCost) {
+    costs
+        .computeIfAbsent(replayCost.workflowType(), WorkflowTypeReplayCost::new)
+        .record(replayCost);
+  }
+
+  /** Adds the costs of {@code other}, which must not be used afterwards. */
+  public ReplayCostStats merge(final ReplayCostStats other) {
+    other.costs.forEach(
+        (workflowType, cost) -> {
+          final WorkflowTypeReplayCost current = costs.putIfAbsent(workflowType, cost);
+          if (current != null) {
+            current.merge(cost);
+          }
+        });
+    return this;
+  }
+
+  /** Workflow types, the most expensive to replay once first. */
+  public List<WorkflowTypeReplayCost> ranked() {
+    final List<WorkflowTypeReplayCost> ranked = new ArrayList<>(costs.values());
+    ranked.sort(Comparator.comparing(WorkflowTypeReplayCost::meanWallTime).reversed());
+    return ranked;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder report = new StringBuilder();
+    for (final WorkflowTypeReplayCost cost : ranked()) {
+      report.append(
+          String.format(
+              "WorkflowType '%s': %d replays (%d failed), %d events, %.0f events/s."
+                  + " Each cache miss costs %s and %.1f MB allocated on average, %s max%n",
+              cost.workflowType(),
+              cost.replays(),
+              cost.failures(),
+              cost.events(),
+              cost.eventsPerSecond(),
+              cost.meanWallTime(),
+              cost.meanAllocatedBytes() / (1024.0 * 1024),
+              cost.maxWallTime()));
+    }
+    return report.toString();
+  }
+}
@@ -0,0 +1,75 @@
+package com.antmendoza.replay;
+
+import java.time.Duration;
+
+/** Replay costs of the histories of one workflow type. */
+public class WorkflowTypeReplayCost {
+
+  private final String workflowType;
+  private long replays;
+  private long failures;
+  private long events;
+  private long wallNanos;
+  private long maxWallNanos;
+  private long allocatedBytes;
+
+  WorkflowTypeReplayCost(final String workflowType) {
+    this.workflowType = workflowType;
+  }
+
+  void record(final ReplayCost replayCost) {
+    replays++;
+    if (replayCost.isFailed()) {
+      failures++;
+    }
+    events += replayCost.events();
+    wallNanos += replayCost.wallNanos();
+    maxWallNanos = Math.max(maxWallNanos, replayCost.wallNanos());
+    if (replayCost.allocatedBytes() != ReplayCost.NOT_AVAILABLE) {
+      allocatedBytes += replayCost.allocatedBytes();
+    }
+  }
+
+  void merge(final WorkflowTypeReplayCost other) {
+    replays += other.replays;
+    failures += other.failures;
+    events += other.events;
+    wallNanos += other.wallNanos;
+    maxWallNanos = Math.max(maxWallNanos, other.maxWallNanos);
+    allocatedBytes += other.allocatedBytes;
+  }
+
+  public String workflowType() {
+    return workflowType;
+  }
+
+  public long replays() {
+    return replays;
+  }
+
+  /** Histories that did not replay, because of non deterministic code or a missing type. */
+  public long failures() {
+    return failures;
+  }
+
+  public long events() {
+    return events;
+  }
+
+  public Duration meanWallTime() {
+    return Duration.ofNanos(replays == 0 ? 0 : wallNanos / replays);
+  }
+
+  public Duration maxWallTime() {
+    return Duration.ofNanos(maxWallNanos);
+  }
+
+  /** 0 if the JVM does not measure thread allocation. */
+  public long meanAllocatedBytes() {
+    return replays == 0 ? 0 : allocatedBytes / replays;
+  }
+
+  public double eventsPerSecond() {
+    return wallNanos == 0 ? 0 : events * 1_000_000_000.0 / wallNanos;
+  }
+}
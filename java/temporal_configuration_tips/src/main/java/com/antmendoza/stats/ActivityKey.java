@@ -0,0 +1,23 @@
+package com.antmendoza.stats;
+
+import com.antmendoza.loader.ActivityData;
+
+/** Groups activity executions across histories. */
+public record ActivityKey(String activityType, String taskQueue) {
+
+  public static ActivityKey of(final ActivityData activityData) {
+    return new ActivityKey(activityData.activityType(), activityData.taskQueue());
+  }
+
+  @Override
+  public String toString() {
+    return "ActivityKey{"
+        + "activityType='"
+        + activityType
+        + '\''
+        + ", taskQueue='"
+        + taskQueue
+        + '\''
+        + '}';
+  }
+}
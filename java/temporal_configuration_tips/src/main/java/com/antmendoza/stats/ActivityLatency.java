@@ -0,0 +1,50 @@
+package com.antmendoza.stats;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+/**
+ * Start to close latency distribution of one {@link ActivityKey}.
+ *
+ * <p>Latencies are recorded in microseconds with two significant digits, the histogram resizes
+ * itself to the observed range so activities with short latencies stay a few KB.
+ */
+public class ActivityLatency {
+
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final AbstractHistogram startToClose = new IntCountsHistogram(SIGNIFICANT_DIGITS);
+  private long maxStartToCloseConfigNanos;
+
+  void record(final long startToCloseNanos, final long startToCloseTimeoutNanos) {
+    startToClose.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(startToCloseNanos)));
+    maxStartToCloseConfigNanos = Math.max(maxStartToCloseConfigNanos, startToCloseTimeoutNanos);
+  }
+
+  void merge(final ActivityLatency other) {
+    startToClose.add(other.startToClose);
+    maxStartToCloseConfigNanos =
+        Math.max(maxStartToCloseConfigNanos, other.maxStartToCloseConfigNanos);
+  }
+
+  public long count() {
+    return startToClose.getTotalCount();
+  }
+
+  /** @param percentile between 0 and 100 */
+  public Duration startToClose(final double percentile) {
+    return Duration.ofNanos(
+        TimeUnit.MICROSECONDS.toNanos(startToClose.getValueAtPercentile(percentile)));
+  }
+
+  public Duration maxStartToClose() {
+    return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(startToClose.getMaxValue()));
+  }
+
+  /** Highest startToClose timeout configured across the executions. */
+  public Duration startToCloseConfigValue() {
+    return Duration.ofNanos(maxStartToCloseConfigNanos);
+  }
+}
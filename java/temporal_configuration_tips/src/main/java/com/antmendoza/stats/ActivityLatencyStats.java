@@ -0,0 +1,151 @@
+package com.antmendoza.stats;
+
+import com.antmendoza.loader.ActivityData;
+import com.antmendoza.loader.ActivityDataStore;
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import io.temporal.api.common.v1.RetryPolicy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Latency distributions and retries per activity type and task queue, and load of each task queue
+ * over time, built across many histories.
+ *
+ * <p>Instances are not thread safe. To aggregate in parallel, build one instance per thread and
+ * {@link #merge(ActivityLatencyStats)} them, see {@link #collector()}.
+ */
+public class ActivityLatencyStats {
+
+  public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+
+  private final Map<ActivityKey, ActivityLatency> latencies = new HashMap<>();
+  private final Map<ActivityKey, ActivityRetries> retries = new HashMap<>();
+  private final Map<String, TaskQueueLoad> taskQueueLoads = new HashMap<>();
+  private final Duration window;
+
+  public ActivityLatencyStats() {
+    this(DEFAULT_WINDOW);
+  }
+
+  /** @param window size of the time windows of {@link #getTaskQueueLoads()} */
+  public ActivityLatencyStats(final Duration window) {
+    this.window = window;
+  }
+
+  public void record(final WorkflowExecutionHistoryData workflowExecutionHistoryData) {
+    record(workflowExecutionHistoryData.getActivityDataStore());
+  }
+
+  public void record(final ActivityDataStore activityDataStore) {
+    for (int row = 0; row < activityDataStore.size(); row++) {
+      record(
+          activityDataStore.activityType(row),
+          activityDataStore.taskQueue(row),
+          activityDataStore.isClosed(row),
+          activityDataStore.scheduledTimeNanos(row),
+          activityDataStore.scheduleToStartNanos(row),
+          activityDataStore.startToCloseNanos(row),
+          activityDataStore.startToCloseTimeoutNanos(row),
+          activityDataStore.attempt(row),
+          activityDataStore.heartbeatTimeoutFailures(row),
+          activityDataStore.heartbeatTimeoutNanos(row),
+          activityDataStore.retryPolicy(row));
+    }
+  }
+
+  public void record(final ActivityData activityData) {
+    record(
+        activityData.activityType(),
+        activityData.taskQueue(),
+        activityData.isClosed(),
+        activityData.scheduledTimeNanos(),
+        activityData.scheduleToStartNanos(),
+        activityData.startToCloseNanos(),
+        activityData.startToCloseTimeoutNanos(),
+        activityData.attempt(),
+        activityData.heartbeatTimeoutFailures(),
+        activityData.heartbeatTimeoutNanos(),
+        activityData.retryPolicy());
+  }
+
+  private void record(
+      final String activityType,
+      final String taskQueue,
+      final boolean closed,
+      final long scheduledTimeNanos,
+      final long scheduleToStartNanos,
+      final long startToCloseNanos,
+      final long startToCloseTimeoutNanos,
+      final int attempt,
+      final int heartbeatTimeoutFailures,
+      final long heartbeatTimeoutNanos,
+      final RetryPolicy retryPolicy) {
+    if (scheduleToStartNanos == ActivityData.NOT_AVAILABLE) {
+      return;
+    }
+    final ActivityKey key = new ActivityKey(activityType, taskQueue);
+    taskQueueLoads
+        .computeIfAbsent(taskQueue, k -> new TaskQueueLoad(window))
+        .record(scheduledTimeNanos, scheduleToStartNanos, startToCloseNanos, attempt);
+    retries
+        .computeIfAbsent(key, k -> new ActivityRetries())
+        .record(
+            attempt,
+            scheduleToStartNanos,
+            heartbeatTimeoutFailures,
+            heartbeatTimeoutNanos,
+            retryPolicy);
+    // only executions that ran to a terminal event have a start to close latency
+    if (closed) {
+      latencies
+          .computeIfAbsent(key, k -> new ActivityLatency())
+          .record(startToCloseNanos, startToCloseTimeoutNanos);
+    }
+  }
+
+  /** Adds the distributions of {@code other}, which must not be used afterwards. */
+  public ActivityLatencyStats merge(final ActivityLatencyStats other) {
+    other.latencies.forEach(
+        (key, latency) -> {
+          final ActivityLatency current = latencies.putIfAbsent(key, latency);
+          if (current != null) {
+            current.merge(latency);
+          }
+        });
+    other.retries.forEach(
+        (key, activityRetries) -> {
+          final ActivityRetries current = retries.putIfAbsent(key, activityRetries);
+          if (current != null) {
+            current.merge(activityRetries);
+          }
+        });
+    other.taskQueueLoads.forEach(
+        (taskQueue, load) -> {
+          final TaskQueueLoad current = taskQueueLoads.putIfAbsent(taskQueue, load);
+          if (current != null) {
+            current.merge(load);
+          }
+        });
+    return this;
+  }
+
+  public Map<ActivityKey, ActivityLatency> getLatencies() {
+    return Collections.unmodifiableMap(latencies);
+  }
+
+  public Map<ActivityKey, ActivityRetries> getRetries() {
+    return Collections.unmodifiableMap(retries);
+  }
+
+  public Map<String, TaskQueueLoad> getTaskQueueLoads() {
+    return Collections.unmodifiableMap(taskQueueLoads);
+  }
+
+  public static Collector<WorkflowExecutionHistoryData, ?, ActivityLatencyStats> collector() {
+    return Collector.of(
+        ActivityLatencyStats::new, ActivityLatencyStats::record, ActivityLatencyStats::merge);
+  }
+}
@@ -0,0 +1,109 @@
+package com.antmendoza.stats;
+
+import io.temporal.api.common.v1.RetryPolicy;
+import java.time.Duration;
+
+/**
+ * Attempts, retry gaps and heartbeat timeouts of one {@link ActivityKey}.
+ *
+ * <p>Histories only record the started event of the last attempt, with its attempt number. The time
+ * from scheduled to that start was spent running the previous attempts and backing off between
+ * them, so it gives the mean time between attempts even if the attempts themselves are not in the
+ * history.
+ */
+public class ActivityRetries {
+
+  private long executions;
+  private long retriedExecutions;
+  private long attempts;
+  private int maxAttempt;
+  private long retriesNanos;
+  private long heartbeatTimeoutFailures;
+  private long maxHeartbeatTimeoutNanos;
+  private RetryPolicy unlimitedRetryPolicy;
+
+  void record(
+      final int attempt,
+      final long scheduleToStartNanos,
+      final int heartbeatTimeoutFailures,
+      final long heartbeatTimeoutNanos,
+      final RetryPolicy retryPolicy) {
+    executions++;
+    attempts += attempt;
+    maxAttempt = Math.max(maxAttempt, attempt);
+    if (attempt > 1) {
+      retriedExecutions++;
+      retriesNanos += scheduleToStartNanos;
+    }
+    this.heartbeatTimeoutFailures += heartbeatTimeoutFailures;
+    maxHeartbeatTimeoutNanos = Math.max(maxHeartbeatTimeoutNanos, heartbeatTimeoutNanos);
+    // policies without maximum interval were not recorded by the server
+    if (retryPolicy.getMaximumAttempts() == 0
+        && retryPolicy.hasMaximumInterval()
+        && (unlimitedRetryPolicy == null
+            || maximumIntervalNanos(retryPolicy) < maximumIntervalNanos(unlimitedRetryPolicy))) {
+      unlimitedRetryPolicy = retryPolicy;
+    }
+  }
+
+  void merge(final ActivityRetries other) {
+    executions += other.executions;
+    retriedExecutions += other.retriedExecutions;
+    attempts += other.attempts;
+    maxAttempt = Math.max(maxAttempt, other.maxAttempt);
+    retriesNanos += other.retriesNanos;
+    heartbeatTimeoutFailures += other.heartbeatTimeoutFailures;
+    maxHeartbeatTimeoutNanos = Math.max(maxHeartbeatTimeoutNanos, other.maxHeartbeatTimeoutNanos);
+    if (other.unlimitedRetryPolicy != null
+        && (unlimitedRetryPolicy == null
+            || maximumIntervalNanos(other.unlimitedRetryPolicy)
+                < maximumIntervalNanos(unlimitedRetryPolicy))) {
+      unlimitedRetryPolicy = other.unlimitedRetryPolicy;
+    }
+  }
+
+  /** Executions that started at least once. */
+  public long executions() {
+    return executions;
+  }
+
+  public long retriedExecutions() {
+    return retriedExecutions;
+  }
+
+  public double meanAttempts() {
+    return executions == 0 ? 0 : (double) attempts / executions;
+  }
+
+  public int maxAttempt() {
+    return maxAttempt;
+  }
+
+  /** Mean time from the start of an attempt, or the schedule of the first, to the next attempt. */
+  public Duration meanTimeBetweenAttempts() {
+    final long retries = attempts - executions;
+    return Duration.ofNanos(retries == 0 ? 0 : retriesNanos / retries);
+  }
+
+  public long heartbeatTimeoutFailures() {
+    return heartbeatTimeoutFailures;
+  }
+
+  /** Highest heartbeat timeout configured across the executions. */
+  public Duration heartbeatTimeoutConfigValue() {
+    return Duration.ofNanos(maxHeartbeatTimeoutNanos);
+  }
+
+  /**
+   * Retry policy without maximum attempts with the shortest maximum interval, or null if every
+   * execution had a bounded number of attempts.
+   */
+  public RetryPolicy unlimitedRetryPolicy() {
+    return unlimitedRetryPolicy;
+  }
+
+  static long maximumIntervalNanos(final RetryPolicy retryPolicy) {
+    return retryPolicy.getMaximumInterval().getSeconds() * 1_000_000_000L
+        + retryPolicy.getMaximumInterval().getNanos();
+  }
+}
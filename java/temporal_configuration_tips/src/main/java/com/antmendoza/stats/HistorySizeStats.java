@@ -0,0 +1,132 @@
+package com.antmendoza.stats;
+
+import com.antmendoza.loader.HistorySize;
+import io.temporal.api.enums.v1.EventType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+
+/**
+ * Size of the histories of each workflow type, per event type, and the iteration after which runs
+ * should continue as new, built across many histories.
+ *
+ * <p>Large histories are slow to replay, every time a worker misses the workflow in its sticky
+ * cache. The server warns at {@link #DEFAULT_MAX_EVENTS} events or {@link #DEFAULT_MAX_BYTES}
+ * bytes, and terminates the workflow at five times that.
+ *
+ * <p>Instances are not thread safe. To aggregate in parallel, build one instance per thread and
+ * {@link #merge(HistorySizeStats)} them, see {@link #collector()}.
+ */
+public class HistorySizeStats {
+
+  /** Default of the limit.historyCount.warn dynamic config. */
+  public static final long DEFAULT_MAX_EVENTS = 10 * 1024;
+
+  /** Default of the limit.historySize.warn dynamic config. */
+  public static final long DEFAULT_MAX_BYTES = 10 * 1024 * 1024;
+
+  private final Map<String, WorkflowTypeSize> sizes = new TreeMap<>();
+
+  public void record(final HistorySize historySize) {
+    sizes
+        .computeIfAbsent(historySize.getWorkflowType(), k -> new WorkflowTypeSize())
+        .record(historySize);
+  }
+
+  /** Adds the sizes of {@code other}, which must not be used afterwards. */
+  public HistorySizeStats merge(final HistorySizeStats other) {
+    other.sizes.forEach(
+        (workflowType, size) -> {
+          final WorkflowTypeSize current = sizes.putIfAbsent(workflowType, size);
+          if (current != null) {
+            current.merge(size);
+          }
+        });
+    return this;
+  }
+
+  /** Sizes by workflow type. */
+  public Map<String, WorkflowTypeSize> getSizes() {
+    return Collections.unmodifiableMap(sizes);
+  }
+
+  public static Collector<HistorySize, ?, HistorySizeStats> collector() {
+    return Collector.of(HistorySizeStats::new, HistorySizeStats::record, HistorySizeStats::merge);
+  }
+
+  /**
+   * Bytes per event type of each workflow type, and the continue-as-new threshold that keeps its
+   * histories under {@code maxEvents} events and {@code maxBytes} bytes.
+   */
+  public String report(final long maxEvents, final long maxBytes) {
+    final StringBuilder report = new StringBuilder();
+    sizes.forEach(
+        (workflowType, size) -> {
+          report.append(
+              String.format(
+                  "WorkflowType '%s': %d histories, %d events, %s. Largest %s: %d events, %s%n",
+                  workflowType,
+                  size.histories(),
+                  size.totalEvents(),
+                  bytes(size.totalBytes()),
+                  size.largestWorkflowId(),
+                  size.largestEvents(),
+                  bytes(size.largestBytes())));
+
+          final long iterations = size.continueAsNewIterations(maxEvents, maxBytes);
+          if (iterations == Long.MAX_VALUE) {
+            report.append("  histories don't grow with workflow tasks, no need to continue as new");
+          } else {
+            final double events = size.fixedEvents() + iterations * size.eventsPerIteration();
+            final double historyBytes = size.fixedBytes() + iterations * size.bytesPerIteration();
+            report.append(
+                String.format(
+                    "  each iteration (completed workflow task) adds %.1f events and %s, on top"
+                        + " of %.0f events and %s per run.%n"
+                        + "  Continue as new after %d iterations, when"
+                        + " Workflow.getInfo().getHistoryLength() > %.0f or getHistorySize() >"
+                        + " %.0f, to stay under %d events and %s",
+                    size.eventsPerIteration(),
+                    bytes((long) size.bytesPerIteration()),
+                    size.fixedEvents(),
+                    bytes((long) size.fixedBytes()),
+                    iterations,
+                    events,
+                    historyBytes,
+                    maxEvents,
+                    bytes(maxBytes)));
+          }
+          report.append(System.lineSeparator());
+
+          report.append(
+              String.format(
+                  "  %-50s %10s %12s %14s%n", "event type", "events", "bytes", "payload bytes"));
+          for (final EventType eventType : size.eventTypes()) {
+            report.append(
+                String.format(
+                    "  %-50s %10d %12d %14d%n",
+                    eventType.name(),
+                    size.events(eventType),
+                    size.bytes(eventType),
+                    size.payloadBytes(eventType)));
+          }
+        });
+    return report.toString();
+  }
+
+  @Override
+  public String toString() {
+    return report(DEFAULT_MAX_EVENTS, DEFAULT_MAX_BYTES);
+  }
+
+  private static String bytes(final long bytes) {
+    if (bytes < 1024) {
+      return bytes + " B";
+    }
+    if (bytes < 1024 * 1024) {
+      return String.format("%.1f KB", bytes / 1024.0);
+    }
+    return String.format("%.1f MB", bytes / (1024.0 * 1024));
+  }
+}
@@ -0,0 +1,164 @@
+package com.antmendoza.stats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+/**
+ * Activity load of one task queue over time, in fixed windows.
+ *
+ * <p>Each window holds the schedule to start latency of the activities scheduled in it, and the
+ * time activities spent executing in it, from which the average number of concurrent executions is
+ * derived.
+ *
+ * <p>Only first attempts count towards schedule to start. The history keeps the start of the last
+ * attempt only, so for a retried activity the time since it was scheduled includes the earlier
+ * attempts and the retry backoff, not time waiting for a worker. Its last attempt still counts as
+ * execution time.
+ */
+public class TaskQueueLoad {
+
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final long windowNanos;
+  private final TreeMap<Long, Window> windows = new TreeMap<>();
+  private long executions;
+  private long executionNanos;
+
+  TaskQueueLoad(final Duration window) {
+    this.windowNanos = window.toNanos();
+  }
+
+  void record(
+      final long scheduledTimeNanos,
+      final long scheduleToStartNanos,
+      final long startToCloseNanos,
+      final int attempt) {
+    if (attempt <= 1) {
+      window(scheduledTimeNanos).recordScheduleToStart(scheduleToStartNanos);
+    }
+
+    if (startToCloseNanos >= 0) {
+      executions++;
+      executionNanos += startToCloseNanos;
+      // spread the execution over the windows it overlaps
+      final long startedTimeNanos = scheduledTimeNanos + scheduleToStartNanos;
+      final long closedTimeNanos = startedTimeNanos + startToCloseNanos;
+      long from = startedTimeNanos;
+      while (from < closedTimeNanos) {
+        final long windowEnd = windowStart(from) + windowNanos;
+        final long to = Math.min(windowEnd, closedTimeNanos);
+        window(from).addBusy(from, to);
+        from = to;
+      }
+    }
+  }
+
+  void merge(final TaskQueueLoad other) {
+    if (other.windowNanos != windowNanos) {
+      throw new IllegalArgumentException("window sizes differ");
+    }
+    other.windows.forEach(
+        (start, window) -> {
+          final Window current = windows.putIfAbsent(start, window);
+          if (current != null) {
+            current.merge(window);
+          }
+        });
+    executions += other.executions;
+    executionNanos += other.executionNanos;
+  }
+
+  public Duration windowSize() {
+    return Duration.ofNanos(windowNanos);
+  }
+
+  /** Windows with activity, in time order. */
+  public List<Window> windows() {
+    return new ArrayList<>(windows.values());
+  }
+
+  /** Average execution time of the activities that closed, across all windows. */
+  public Duration meanStartToClose() {
+    return Duration.ofNanos(executions == 0 ? 0 : executionNanos / executions);
+  }
+
+  private Window window(final long timeNanos) {
+    return windows.computeIfAbsent(windowStart(timeNanos), Window::new);
+  }
+
+  private long windowStart(final long timeNanos) {
+    return Math.floorDiv(timeNanos, windowNanos) * windowNanos;
+  }
+
+  public class Window {
+
+    private final long startNanos;
+    // allocated on the first scheduled activity, windows can be only busy
+    private AbstractHistogram scheduleToStart;
+    private long busyNanos;
+    // span of the window with executions, the first and last windows are usually partial
+    private long busyFromNanos = Long.MAX_VALUE;
+    private long busyToNanos = Long.MIN_VALUE;
+
+    private Window(final long startNanos) {
+      this.startNanos = startNanos;
+    }
+
+    private void recordScheduleToStart(final long scheduleToStartNanos) {
+      if (scheduleToStart == null) {
+        scheduleToStart = new IntCountsHistogram(SIGNIFICANT_DIGITS);
+      }
+      scheduleToStart.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(scheduleToStartNanos)));
+    }
+
+    private void addBusy(final long fromNanos, final long toNanos) {
+      busyNanos += toNanos - fromNanos;
+      busyFromNanos = Math.min(busyFromNanos, fromNanos);
+      busyToNanos = Math.max(busyToNanos, toNanos);
+    }
+
+    private void merge(final Window other) {
+      if (other.scheduleToStart != null) {
+        if (scheduleToStart == null) {
+          scheduleToStart = other.scheduleToStart;
+        } else {
+          scheduleToStart.add(other.scheduleToStart);
+        }
+      }
+      busyNanos += other.busyNanos;
+      busyFromNanos = Math.min(busyFromNanos, other.busyFromNanos);
+      busyToNanos = Math.max(busyToNanos, other.busyToNanos);
+    }
+
+    public Instant start() {
+      return Instant.ofEpochSecond(0, startNanos);
+    }
+
+    /** Activities scheduled in the window that started. */
+    public long scheduled() {
+      return scheduleToStart == null ? 0 : scheduleToStart.getTotalCount();
+    }
+
+    /** @param percentile between 0 and 100 */
+    public Duration scheduleToStart(final double percentile) {
+      return scheduleToStart == null
+          ? Duration.ZERO
+          : Duration.ofNanos(
+              TimeUnit.MICROSECONDS.toNanos(scheduleToStart.getValueAtPercentile(percentile)));
+    }
+
+    /**
+     * Average number of activities executing at the same time, between the first and the last
+     * execution seen in the window.
+     */
+    public double concurrency() {
+      return busyToNanos > busyFromNanos ? (double) busyNanos / (busyToNanos - busyFromNanos) : 0;
+    }
+  }
+}
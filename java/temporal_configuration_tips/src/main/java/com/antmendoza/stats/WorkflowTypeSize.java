@@ -0,0 +1,186 @@
+package com.antmendoza.stats;
+
+import com.antmendoza.loader.HistorySize;
+import io.temporal.api.enums.v1.EventType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size of the histories of one workflow type, per event type, and how it grows with each iteration
+ * of the workflow code, see {@link HistorySize#completedWorkflowTasks()}.
+ *
+ * <p>Growth is the least squares line of history events and bytes over iterations across the
+ * histories: the slope is the cost of one iteration, the intercept the fixed cost of a run. With a
+ * single history, or histories with the same number of iterations, the slope is the mean cost of an
+ * iteration.
+ */
+public class WorkflowTypeSize {
+
+  private static final int EVENTS = 0;
+  private static final int BYTES = 1;
+  private static final int PAYLOAD_BYTES = 2;
+
+  private final Map<EventType, long[]> eventTypes = new EnumMap<>(EventType.class);
+
+  private long histories;
+  private double sumIterations;
+  private double sumIterationsSquared;
+  private double sumEvents;
+  private double sumIterationsEvents;
+  private double sumBytes;
+  private double sumIterationsBytes;
+
+  private String largestWorkflowId;
+  private long largestEvents;
+  private long largestBytes;
+
+  void record(final HistorySize historySize) {
+    for (final EventType eventType : EventType.values()) {
+      if (eventType != EventType.UNRECOGNIZED && historySize.events(eventType) > 0) {
+        final long[] sizes = eventTypes.computeIfAbsent(eventType, k -> new long[3]);
+        sizes[EVENTS] += historySize.events(eventType);
+        sizes[BYTES] += historySize.bytes(eventType);
+        sizes[PAYLOAD_BYTES] += historySize.payloadBytes(eventType);
+      }
+    }
+
+    final double iterations = historySize.completedWorkflowTasks();
+    final long events = historySize.totalEvents();
+    final long bytes = historySize.totalBytes();
+    histories++;
+    sumIterations += iterations;
+    sumIterationsSquared += iterations * iterations;
+    sumEvents += events;
+    sumIterationsEvents += iterations * events;
+    sumBytes += bytes;
+    sumIterationsBytes += iterations * bytes;
+
+    if (largestWorkflowId == null || bytes > largestBytes) {
+      largestWorkflowId = historySize.getWorkflowId();
+      largestEvents = events;
+      largestBytes = bytes;
+    }
+  }
+
+  void merge(final WorkflowTypeSize other) {
+    other.eventTypes.forEach(
+        (eventType, otherSizes) -> {
+          final long[] sizes = eventTypes.computeIfAbsent(eventType, k -> new long[3]);
+          for (int i = 0; i < sizes.length; i++) {
+            sizes[i] += otherSizes[i];
+          }
+        });
+    histories += other.histories;
+    sumIterations += other.sumIterations;
+    sumIterationsSquared += other.sumIterationsSquared;
+    sumEvents += other.sumEvents;
+    sumIterationsEvents += other.sumIterationsEvents;
+    sumBytes += other.sumBytes;
+    sumIterationsBytes += other.sumIterationsBytes;
+    if (largestWorkflowId == null
+        || (other.largestWorkflowId != null && other.largestBytes > largestBytes)) {
+      largestWorkflowId = other.largestWorkflowId;
+      largestEvents = other.largestEvents;
+      largestBytes = other.largestBytes;
+    }
+  }
+
+  public long histories() {
+    return histories;
+  }
+
+  public long totalEvents() {
+    return (long) sumEvents;
+  }
+
+  public long totalBytes() {
+    return (long) sumBytes;
+  }
+
+  /** Event types seen in the histories, the ones taking the most bytes first. */
+  public List<EventType> eventTypes() {
+    final List<EventType> sorted = new ArrayList<>(eventTypes.keySet());
+    sorted.sort(Comparator.comparingLong(this::bytes).reversed());
+    return sorted;
+  }
+
+  public long events(final EventType eventType) {
+    return eventTypes.containsKey(eventType) ? eventTypes.get(eventType)[EVENTS] : 0;
+  }
+
+  public long bytes(final EventType eventType) {
+    return eventTypes.containsKey(eventType) ? eventTypes.get(eventType)[BYTES] : 0;
+  }
+
+  public long payloadBytes(final EventType eventType) {
+    return eventTypes.containsKey(eventType) ? eventTypes.get(eventType)[PAYLOAD_BYTES] : 0;
+  }
+
+  public String largestWorkflowId() {
+    return largestWorkflowId;
+  }
+
+  public long largestEvents() {
+    return largestEvents;
+  }
+
+  public long largestBytes() {
+    return largestBytes;
+  }
+
+  public double eventsPerIteration() {
+    return slope(sumEvents, sumIterationsEvents);
+  }
+
+  public double bytesPerIteration() {
+    return slope(sumBytes, sumIterationsBytes);
+  }
+
+  /** Events of a run that does not iterate, like the start and completion of the workflow. */
+  public double fixedEvents() {
+    return intercept(sumEvents, eventsPerIteration());
+  }
+
+  public double fixedBytes() {
+    return intercept(sumBytes, bytesPerIteration());
+  }
+
+  /**
+   * Iterations a run can do before its history reaches {@code maxEvents} or {@code maxBytes},
+   * {@link Long#MAX_VALUE} if histories don't grow with iterations.
+   */
+  public long continueAsNewIterations(final long maxEvents, final long maxBytes) {
+    final double eventsPerIteration = eventsPerIteration();
+    final double bytesPerIteration = bytesPerIteration();
+    if (eventsPerIteration <= 0 && bytesPerIteration <= 0) {
+      return Long.MAX_VALUE;
+    }
+    double iterations = Double.MAX_VALUE;
+    if (eventsPerIteration > 0) {
+      iterations = Math.min(iterations, (maxEvents - fixedEvents()) / eventsPerIteration);
+    }
+    if (bytesPerIteration > 0) {
+      iterations = Math.min(iterations, (maxBytes - fixedBytes()) / bytesPerIteration);
+    }
+    return Math.max(1, (long) iterations);
+  }
+
+  private double slope(final double sumY, final double sumIterationsY) {
+    final double denominator = histories * sumIterationsSquared - sumIterations * sumIterations;
+    if (denominator > 0) {
+      final double slope = (histories * sumIterationsY - sumIterations * sumY) / denominator;
+      if (slope > 0) {
+        return slope;
+      }
+    }
+    // runs with the same number of iterations, or noise hiding the growth
+    return sumIterations == 0 ? 0 : sumY / sumIterations;
+  }
+
+  private double intercept(final double sumY, final double slope) {
+    return histories == 0 ? 0 : Math.max(0, (sumY - slope * sumIterations) / histories);
+  }
+}
@@ -0,0 +1,62 @@
+package com.antmendoza;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.benchmark.SyntheticHistories;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import com.antmendoza.stats.ActivityLatencyStats;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RetryStormConfInspectorTest {
+
+  @Test
+  public void tipsForUnlimitedRetriesAndHeartbeatTimeouts() {
+
+    final ActivityLatencyStats stats = new ActivityLatencyStats();
+    stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.retryStorm(10)));
+
+    final List<Tip> tips = new RetryStormConfInspector().inspectActivityLatencies(stats);
+
+    assertEquals(2, tips.size());
+    final Tip retryPolicy = tips.get(0);
+    assertEquals(
+        Tip.ConfigurationProperty.ActivityRetryPolicy, retryPolicy.getConfigurationProperty());
+    assertEquals("FlakyActivity", retryPolicy.getActivityType());
+    assertEquals(Duration.ofSeconds(2), retryPolicy.getConfiguredValue());
+    // 34s to reach the sixth attempt
+    assertEquals(Duration.ofMillis(6_800), retryPolicy.getCurrentValue());
+    assertTrue(
+        retryPolicy.getActionSuggested().contains("6.0 attempts per execution (max 6)"),
+        retryPolicy.getActionSuggested());
+    assertTrue(
+        retryPolicy.getActionSuggested().contains("retries 1800 times per hour"),
+        retryPolicy.getActionSuggested());
+
+    final Tip heartbeat = tips.get(1);
+    assertEquals(
+        Tip.ConfigurationProperty.ActivityHeartbeatTimeout, heartbeat.getConfigurationProperty());
+    assertEquals(Duration.ofSeconds(5), heartbeat.getConfiguredValue());
+    assertTrue(
+        heartbeat.getActionSuggested().contains("10 attempts failed with a heartbeat timeout"),
+        heartbeat.getActionSuggested());
+  }
+
+  @Test
+  public void noTipWhenAttemptsAreBoundedOrIntervalIsLong() {
+
+    final ActivityLatencyStats stats = new ActivityLatencyStats();
+    stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(200)));
+    stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.retryStorm(10)));
+
+    final List<Tip> tips =
+        new RetryStormConfInspector(Duration.ofSeconds(1)).inspectActivityLatencies(stats);
+
+    assertEquals(1, tips.size());
+    assertEquals(
+        Tip.ConfigurationProperty.ActivityHeartbeatTimeout, tips.get(0).getConfigurationProperty());
+  }
+}
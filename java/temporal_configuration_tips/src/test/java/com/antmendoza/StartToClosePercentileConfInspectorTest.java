@@ -0,0 +1,39 @@
+package com.antmendoza;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.benchmark.SyntheticHistories;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import com.antmendoza.stats.ActivityLatencyStats;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class StartToClosePercentileConfInspectorTest {
+
+  @Test
+  public void tipWhenTimeoutIsFarAboveTheObservedLatency() {
+
+    final ActivityLatencyStats stats = new ActivityLatencyStats();
+    stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(200)));
+
+    final List<Tip> tips =
+        new StartToClosePercentileConfInspector().inspectActivityLatencies(stats);
+
+    assertEquals(1, tips.size());
+    assertTrue(tips.get(0).toString().contains("activityStartToClose is 80x the observed p99.9"));
+    assertTrue(tips.get(0).toString().contains("configuredValue=[" + Duration.ofMinutes(2) + "]"));
+  }
+
+  @Test
+  public void noTipWithoutEnoughSamples() {
+
+    final ActivityLatencyStats stats = new ActivityLatencyStats();
+    stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(20)));
+
+    assertEquals(
+        0, new StartToClosePercentileConfInspector().inspectActivityLatencies(stats).size());
+  }
+}
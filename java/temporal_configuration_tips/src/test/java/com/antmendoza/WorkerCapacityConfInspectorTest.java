@@ -0,0 +1,82 @@
+package com.antmendoza;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.benchmark.SyntheticHistories;
+import com.antmendoza.inspector.Tip;
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import com.antmendoza.stats.ActivityLatencyStats;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class WorkerCapacityConfInspectorTest {
+
+  @Test
+  public void suggestMoreSlotsWhenWorkersRunAtCapacity() {
+
+    final ActivityLatencyStats stats = new ActivityLatencyStats();
+    stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.activityBurst(200, 2)));
+
+    final List<Tip> tips = new WorkerCapacityConfInspector().inspectActivityLatencies(stats);
+
+    assertEquals(1, tips.size());
+    assertEquals(
+        Tip.ConfigurationProperty.WorkerActivityExecutionSize,
+        tips.get(0).getConfigurationProperty());
+    // 200 activities per minute that take 1 second need 3.3 slots, plus headroom
+    final String actionSuggested = tips.get(0).getActionSuggested();
+    assertTrue(
+        actionSuggested.contains("maxConcurrentActivityExecutionSize to at least 4"),
+        actionSuggested);
+    // the last activities waited 99 seconds, two significant digits
+    assertEquals(99, tips.get(0).getCurrentValue().toSeconds(), 1);
+    // the missing slots, over the saturated windows
+    assertTrue(tips.get(0).getWastedSlotNanos() > 0);
+  }
+
+  @Test
+  public void suggestMorePollersWhenSlotsAreFree() {
+
+    final ActivityLatencyStats stats = new ActivityLatencyStats();
+    // 40 activities at once reach a peak of 40 concurrent executions
+    stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.activityBurst(40, 40)));
+    // 10 minutes later 100 activities are started one at a time, 60 in the first minute
+    stats.record(
+        new WorkflowExecutionHistoryData(
+            SyntheticHistories.activityBurst(100, 1, Duration.ofMinutes(10).toMillis())));
+
+    final List<Tip> tips = new WorkerCapacityConfInspector().inspectActivityLatencies(stats);
+
+    assertEquals(1, tips.size());
+    assertEquals(
+        Tip.ConfigurationProperty.WorkerActivityPollers, tips.get(0).getConfigurationProperty());
+    // 100 arrivals per minute drained at 1 per second: 5 pollers * 1.67 plus headroom
+    final String actionSuggested = tips.get(0).getActionSuggested();
+    assertTrue(
+        actionSuggested.contains("maxConcurrentActivityTaskPollers to 10 (from 5)"),
+        actionSuggested);
+  }
+
+  @Test
+  public void noTipWhenActivitiesStartPromptly() {
+
+    final ActivityLatencyStats stats = new ActivityLatencyStats();
+    stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(200)));
+
+    assertEquals(0, new WorkerCapacityConfInspector().inspectActivityLatencies(stats).size());
+  }
+
+  @Test
+  public void noTipWhenActivitiesWaitOnRetries() {
+
+    // 50 activities scheduled together, each starting its last attempt 34s later after retrying
+    final ActivityLatencyStats stats = new ActivityLatencyStats();
+    for (int i = 0; i < 50; i++) {
+      stats.record(new WorkflowExecutionHistoryData(SyntheticHistories.retryStorm(1)));
+    }
+
+    assertEquals(0, new WorkerCapacityConfInspector().inspectActivityLatencies(stats).size());
+  }
+}
@@ -2,11 +2,20 @@ package com.antmendoza;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import com.antmendoza.benchmark.SyntheticHistories;
 import com.antmendoza.inspector.*;
+import com.antmendoza.loader.HistoryLoaderFromDir;
 import com.antmendoza.loader.HistoryLoaderFromFile;
 import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import com.antmendoza.loader.WorkflowTaskData;
+import io.temporal.api.enums.v1.TaskQueueKind;
+import io.temporal.api.history.v1.History;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.api.taskqueue.v1.TaskQueue;
+import io.temporal.common.WorkflowExecutionHistory;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class WorkflowConfigurationInspectorTest {
@@ -26,10 +35,74 @@ public class WorkflowConfigurationInspectorTest {
         new Tip(
             "ActivityData{workflowId='workflow_id_in_replay', activityId='a490efe7-fd1f-38fc-a914-7caa325a2422'}",
             Tip.ConfigurationProperty.ActivityStartToClose,
+            "Greet",
+            "tracingTaskQueue",
             "activityStartToClose configured valued is too high."
                 + " Set the value to the maximum time the activity execution can take",
-            Duration.ofMinutes(2),
-            Duration.ofMillis(3)),
+            Duration.ofMinutes(2).toNanos(),
+            3_999_375),
         result.getTips().get(0));
   }
+
+  @Test
+  public void inspectDirectoryInParallel() {
+
+    final Path path = Path.of("src/test/resources", "");
+    final ConfigurationInspectorResult result =
+        new HistoryLoaderFromDir(path).read(4, WorkflowConfigurationInspector.collector());
+
+    assertEquals(10, result.getTips().size());
+  }
+
+  @Test
+  public void inspectWorkflowTasksChildWorkflowsAndTimers() {
+
+    final ConfigurationInspectorResult result =
+        new WorkflowConfigurationInspector(
+                new WorkflowExecutionHistoryData(
+                    SyntheticHistories.slowWorkflowTasksTimerAndChild()))
+            .feedback();
+
+    assertEquals(
+        List.of(
+            Tip.ConfigurationProperty.WorkflowTaskPollers,
+            Tip.ConfigurationProperty.WorkflowTaskTimeout,
+            Tip.ConfigurationProperty.ChildWorkflowStart,
+            Tip.ConfigurationProperty.TimerDrift),
+        result.getTips().stream().map(Tip::getConfigurationProperty).toList());
+  }
+
+  @Test
+  public void reportStickyBacklogAgainstTheWorkflowTaskQueue() {
+
+    final History.Builder history =
+        SyntheticHistories.slowWorkflowTasksTimerAndChild().getHistory().toBuilder();
+    for (final HistoryEvent.Builder event : history.getEventsBuilderList()) {
+      if (event.hasWorkflowTaskScheduledEventAttributes()) {
+        // the first task on a server that sets normalName, the second on one that does not
+        event
+            .getWorkflowTaskScheduledEventAttributesBuilder()
+            .setTaskQueue(
+                TaskQueue.newBuilder()
+                    .setName("worker-host-" + event.getEventId() + ":sticky")
+                    .setKind(TaskQueueKind.TASK_QUEUE_KIND_STICKY)
+                    .setNormalName(event.getEventId() == 2 ? SyntheticHistories.TASK_QUEUE : ""));
+      }
+    }
+    final WorkflowExecutionHistoryData data =
+        new WorkflowExecutionHistoryData(
+            new WorkflowExecutionHistory(history.build(), SyntheticHistories.WORKFLOW_ID));
+
+    assertEquals(
+        List.of(SyntheticHistories.TASK_QUEUE, SyntheticHistories.TASK_QUEUE),
+        data.getWorkflowTasks().stream().map(WorkflowTaskData::taskQueue).toList());
+
+    final Tip tip =
+        new WorkflowTaskScheduleToStartConfInspector()
+            .inspectWorkflowTasks(data.getWorkflowTasks())
+            .get(0);
+    assertEquals(
+        Tip.ConfigurationProperty.WorkerWorkflowTaskExecutionSize, tip.getConfigurationProperty());
+    assertEquals(SyntheticHistories.TASK_QUEUE, tip.getTaskQueue());
+  }
 }
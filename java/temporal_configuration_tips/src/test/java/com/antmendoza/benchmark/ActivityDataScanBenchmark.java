@@ -0,0 +1,65 @@
+package com.antmendoza.benchmark;
+
+import com.antmendoza.loader.ActivityData;
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scan over extracted activities, reading latencies as primitive nanos or as {@link Duration}. Run with {@code -prof gc} to compare allocations per scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActivityDataScanBenchmark {
+
+  @Param({"100000"})
+  public int activities;
+
+  private List<ActivityData> activityDataList;
+
+  @Setup
+  public void setUp() {
+    activityDataList =
+        new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(activities))
+            .getActivityDataList();
+  }
+
+  @Benchmark
+  public long overTimeoutNanos() {
+    long count = 0;
+    for (final ActivityData ad : activityDataList) {
+      if (ad.startToCloseTimeoutNanos() > ad.startToCloseNanos() * 1.2) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long overTimeoutDuration() {
+    long count = 0;
+    for (final ActivityData ad : activityDataList) {
+      final Duration threshold = ad.startToCloseLatency().multipliedBy(6).dividedBy(5);
+      if (ad.startToCloseConfigValue().compareTo(threshold) > 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,78 @@
+package com.antmendoza.benchmark;
+
+import com.antmendoza.loader.ProtoHistoryLoaderFromFile;
+import com.antmendoza.loader.ProtoHistoryWriter;
+import com.antmendoza.loader.StreamingHistoryLoaderFromFile;
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parse time of the same synthetic history written as json and in the binary formats. The bytes
+ * on disk of each file are printed during the setup.
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main HistoryFormatBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryFormatBenchmark {
+
+  @Param({"1000", "10000"})
+  public int activities;
+
+  @Param({"json", "binpb", "binpb.zst"})
+  public String format;
+
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    final WorkflowExecutionHistory history = SyntheticHistories.sequentialActivities(activities);
+    file = Files.createTempFile("history", "." + format);
+    switch (format) {
+      case "json":
+        Files.writeString(file, history.toJson(true));
+        break;
+      case "binpb":
+        ProtoHistoryWriter.write(file, history, ProtoHistoryWriter.Compression.NONE);
+        break;
+      default:
+        ProtoHistoryWriter.write(file, history, ProtoHistoryWriter.Compression.ZSTD);
+    }
+    System.out.println(System.lineSeparator() + format + ": " + Files.size(file) + " bytes");
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(file);
+  }
+
+  @Benchmark
+  public WorkflowExecutionHistoryData read() {
+    return format.equals("json")
+        ? new StreamingHistoryLoaderFromFile(file).read()
+        : new ProtoHistoryLoaderFromFile(file).read();
+  }
+}
@@ -0,0 +1,391 @@
+package com.antmendoza.benchmark;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Duration;
+import com.google.protobuf.Timestamp;
+import io.temporal.api.common.v1.ActivityType;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.api.common.v1.Payloads;
+import io.temporal.api.common.v1.RetryPolicy;
+import io.temporal.api.common.v1.WorkflowType;
+import io.temporal.api.enums.v1.EventType;
+import io.temporal.api.enums.v1.TimeoutType;
+import io.temporal.api.failure.v1.Failure;
+import io.temporal.api.failure.v1.TimeoutFailureInfo;
+import io.temporal.api.history.v1.ActivityTaskCompletedEventAttributes;
+import io.temporal.api.history.v1.ActivityTaskScheduledEventAttributes;
+import io.temporal.api.history.v1.ActivityTaskStartedEventAttributes;
+import io.temporal.api.history.v1.ActivityTaskTimedOutEventAttributes;
+import io.temporal.api.history.v1.ChildWorkflowExecutionCompletedEventAttributes;
+import io.temporal.api.history.v1.ChildWorkflowExecutionStartedEventAttributes;
+import io.temporal.api.history.v1.History;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.api.history.v1.StartChildWorkflowExecutionInitiatedEventAttributes;
+import io.temporal.api.history.v1.TimerFiredEventAttributes;
+import io.temporal.api.history.v1.TimerStartedEventAttributes;
+import io.temporal.api.history.v1.WorkflowExecutionSignaledEventAttributes;
+import io.temporal.api.history.v1.WorkflowExecutionStartedEventAttributes;
+import io.temporal.api.history.v1.WorkflowTaskCompletedEventAttributes;
+import io.temporal.api.history.v1.WorkflowTaskScheduledEventAttributes;
+import io.temporal.api.history.v1.WorkflowTaskStartedEventAttributes;
+import io.temporal.api.taskqueue.v1.TaskQueue;
+import io.temporal.common.WorkflowExecutionHistory;
+
+/** Builds in-memory workflow histories of arbitrary size for tests and benchmarks. */
+public class SyntheticHistories {
+
+  public static final String WORKFLOW_ID = "synthetic-workflow";
+  public static final String TASK_QUEUE = "synthetic-task-queue";
+
+  /**
+   * One workflow that runs {@code activities} activities one after the other. Every tenth activity
+   * times out, the rest complete.
+   */
+  public static WorkflowExecutionHistory sequentialActivities(final int activities) {
+    final History.Builder history = History.newBuilder();
+    long eventId = 1;
+    long millis = 0;
+
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(eventId++)
+            .setEventTime(at(millis))
+            .setEventType(EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED)
+            .setWorkflowExecutionStartedEventAttributes(
+                WorkflowExecutionStartedEventAttributes.newBuilder()
+                    .setWorkflowType(WorkflowType.newBuilder().setName("SyntheticWorkflow"))
+                    .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))));
+
+    for (int i = 0; i < activities; i++) {
+      final long scheduledEventId = eventId++;
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(scheduledEventId)
+              .setEventTime(at(millis += 5))
+              .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_SCHEDULED)
+              .setActivityTaskScheduledEventAttributes(
+                  ActivityTaskScheduledEventAttributes.newBuilder()
+                      .setActivityId(String.valueOf(i))
+                      .setActivityType(ActivityType.newBuilder().setName("SyntheticActivity"))
+                      .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))
+                      .setStartToCloseTimeout(Duration.newBuilder().setSeconds(120))));
+
+      final long startedEventId = eventId++;
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(startedEventId)
+              .setEventTime(at(millis += 10))
+              .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_STARTED)
+              .setActivityTaskStartedEventAttributes(
+                  ActivityTaskStartedEventAttributes.newBuilder()
+                      .setScheduledEventId(scheduledEventId)
+                      .setAttempt(1)));
+
+      final HistoryEvent.Builder finalEvent =
+          HistoryEvent.newBuilder().setEventId(eventId++).setEventTime(at(millis += 1_500));
+      if (i % 10 == 9) {
+        finalEvent
+            .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_TIMED_OUT)
+            .setActivityTaskTimedOutEventAttributes(
+                ActivityTaskTimedOutEventAttributes.newBuilder()
+                    .setScheduledEventId(scheduledEventId)
+                    .setStartedEventId(startedEventId));
+      } else {
+        finalEvent
+            .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_COMPLETED)
+            .setActivityTaskCompletedEventAttributes(
+                ActivityTaskCompletedEventAttributes.newBuilder()
+                    .setScheduledEventId(scheduledEventId)
+                    .setStartedEventId(startedEventId));
+      }
+      history.addEvents(finalEvent);
+    }
+
+    return new WorkflowExecutionHistory(history.build(), WORKFLOW_ID);
+  }
+
+  /**
+   * One workflow that schedules {@code activities} activities at once, executed by workers with
+   * {@code slots} activity slots. Each activity takes one second, so the last ones wait {@code
+   * activities / slots} seconds in the task queue.
+   */
+  public static WorkflowExecutionHistory activityBurst(final int activities, final int slots) {
+    return activityBurst(activities, slots, 0);
+  }
+
+  /** Like {@link #activityBurst(int, int)}, starting {@code startMillis} later. */
+  public static WorkflowExecutionHistory activityBurst(
+      final int activities, final int slots, final long startMillis) {
+    final History.Builder history = History.newBuilder();
+    long eventId = 1;
+
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(eventId++)
+            .setEventTime(at(startMillis))
+            .setEventType(EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED)
+            .setWorkflowExecutionStartedEventAttributes(
+                WorkflowExecutionStartedEventAttributes.newBuilder()
+                    .setWorkflowType(WorkflowType.newBuilder().setName("SyntheticWorkflow"))
+                    .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))));
+
+    final long firstScheduledEventId = eventId;
+    for (int i = 0; i < activities; i++) {
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(eventId++)
+              .setEventTime(at(startMillis))
+              .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_SCHEDULED)
+              .setActivityTaskScheduledEventAttributes(
+                  ActivityTaskScheduledEventAttributes.newBuilder()
+                      .setActivityId(String.valueOf(i))
+                      .setActivityType(ActivityType.newBuilder().setName("SyntheticActivity"))
+                      .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))
+                      .setStartToCloseTimeout(Duration.newBuilder().setSeconds(120))));
+    }
+
+    for (int i = 0; i < activities; i++) {
+      final long scheduledEventId = firstScheduledEventId + i;
+      final long startedMillis = startMillis + (long) (i / slots) * 1_000;
+      final long startedEventId = eventId++;
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(startedEventId)
+              .setEventTime(at(startedMillis))
+              .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_STARTED)
+              .setActivityTaskStartedEventAttributes(
+                  ActivityTaskStartedEventAttributes.newBuilder()
+                      .setScheduledEventId(scheduledEventId)
+                      .setAttempt(1)));
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(eventId++)
+              .setEventTime(at(startedMillis + 1_000))
+              .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_COMPLETED)
+              .setActivityTaskCompletedEventAttributes(
+                  ActivityTaskCompletedEventAttributes.newBuilder()
+                      .setScheduledEventId(scheduledEventId)
+                      .setStartedEventId(startedEventId)));
+    }
+
+    return new WorkflowExecutionHistory(history.build(), WORKFLOW_ID);
+  }
+
+  /**
+   * One workflow that runs {@code activities} activities one after the other, retried without
+   * maximum attempts and a 2s maximum interval. Each one starts its sixth and last attempt 34s
+   * after being scheduled, after five attempts that failed with a 5s heartbeat timeout and 1s, 2s,
+   * 2s, 2s and 2s of backoff.
+   */
+  public static WorkflowExecutionHistory retryStorm(final int activities) {
+    final History.Builder history = History.newBuilder();
+    long eventId = 1;
+    long millis = 0;
+
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(eventId++)
+            .setEventTime(at(millis))
+            .setEventType(EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED)
+            .setWorkflowExecutionStartedEventAttributes(
+                WorkflowExecutionStartedEventAttributes.newBuilder()
+                    .setWorkflowType(WorkflowType.newBuilder().setName("SyntheticWorkflow"))
+                    .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))));
+
+    for (int i = 0; i < activities; i++) {
+      final long scheduledEventId = eventId++;
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(scheduledEventId)
+              .setEventTime(at(millis))
+              .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_SCHEDULED)
+              .setActivityTaskScheduledEventAttributes(
+                  ActivityTaskScheduledEventAttributes.newBuilder()
+                      .setActivityId(String.valueOf(i))
+                      .setActivityType(ActivityType.newBuilder().setName("FlakyActivity"))
+                      .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))
+                      .setStartToCloseTimeout(Duration.newBuilder().setSeconds(120))
+                      .setHeartbeatTimeout(Duration.newBuilder().setSeconds(5))
+                      .setRetryPolicy(
+                          RetryPolicy.newBuilder()
+                              .setInitialInterval(Duration.newBuilder().setSeconds(1))
+                              .setBackoffCoefficient(2)
+                              .setMaximumInterval(Duration.newBuilder().setSeconds(2))
+                              .setMaximumAttempts(0))));
+
+      final long startedEventId = eventId++;
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(startedEventId)
+              .setEventTime(at(millis += 34_000))
+              .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_STARTED)
+              .setActivityTaskStartedEventAttributes(
+                  ActivityTaskStartedEventAttributes.newBuilder()
+                      .setScheduledEventId(scheduledEventId)
+                      .setAttempt(6)
+                      .setLastFailure(
+                          Failure.newBuilder()
+                              .setMessage("activity Heartbeat timeout")
+                              .setTimeoutFailureInfo(
+                                  TimeoutFailureInfo.newBuilder()
+                                      .setTimeoutType(TimeoutType.TIMEOUT_TYPE_HEARTBEAT)))));
+
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(eventId++)
+              .setEventTime(at(millis += 1_000))
+              .setEventType(EventType.EVENT_TYPE_ACTIVITY_TASK_COMPLETED)
+              .setActivityTaskCompletedEventAttributes(
+                  ActivityTaskCompletedEventAttributes.newBuilder()
+                      .setScheduledEventId(scheduledEventId)
+                      .setStartedEventId(startedEventId)));
+    }
+
+    return new WorkflowExecutionHistory(history.build(), WORKFLOW_ID);
+  }
+
+  /**
+   * One workflow that loops {@code iterations} times waiting for a signal with a {@code
+   * payloadBytes} bytes payload. Each iteration adds the signal and one workflow task, four events.
+   */
+  public static WorkflowExecutionHistory signalLoop(final int iterations, final int payloadBytes) {
+    final History.Builder history = History.newBuilder();
+    long eventId = 1;
+    long millis = 0;
+
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(eventId++)
+            .setEventTime(at(millis))
+            .setEventType(EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED)
+            .setWorkflowExecutionStartedEventAttributes(
+                WorkflowExecutionStartedEventAttributes.newBuilder()
+                    .setWorkflowType(WorkflowType.newBuilder().setName("SyntheticLoop"))
+                    .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))));
+
+    for (int i = 0; i < iterations; i++) {
+      history.addEvents(
+          HistoryEvent.newBuilder()
+              .setEventId(eventId++)
+              .setEventTime(at(millis += 1_000))
+              .setEventType(EventType.EVENT_TYPE_WORKFLOW_EXECUTION_SIGNALED)
+              .setWorkflowExecutionSignaledEventAttributes(
+                  WorkflowExecutionSignaledEventAttributes.newBuilder()
+                      .setSignalName("request")
+                      .setInput(
+                          Payloads.newBuilder()
+                              .addPayloads(
+                                  Payload.newBuilder()
+                                      .setData(ByteString.copyFrom(new byte[payloadBytes]))))));
+      addWorkflowTask(history, eventId, millis, millis + 10, millis + 20);
+      eventId += 3;
+    }
+
+    return new WorkflowExecutionHistory(history.build(), WORKFLOW_ID);
+  }
+
+  /**
+   * One workflow whose first workflow task waits 3s in the task queue and takes 6s of its 10s
+   * timeout, starts a 60s timer that fires 2s late and a child workflow that takes 2s to start.
+   */
+  public static WorkflowExecutionHistory slowWorkflowTasksTimerAndChild() {
+    final History.Builder history = History.newBuilder();
+
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(1)
+            .setEventTime(at(0))
+            .setEventType(EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED)
+            .setWorkflowExecutionStartedEventAttributes(
+                WorkflowExecutionStartedEventAttributes.newBuilder()
+                    .setWorkflowType(WorkflowType.newBuilder().setName("SyntheticWorkflow"))
+                    .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))));
+    addWorkflowTask(history, 2, 0, 3_000, 9_000);
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(5)
+            .setEventTime(at(9_000))
+            .setEventType(EventType.EVENT_TYPE_TIMER_STARTED)
+            .setTimerStartedEventAttributes(
+                TimerStartedEventAttributes.newBuilder()
+                    .setTimerId("5")
+                    .setStartToFireTimeout(Duration.newBuilder().setSeconds(60))));
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(6)
+            .setEventTime(at(9_000))
+            .setEventType(EventType.EVENT_TYPE_START_CHILD_WORKFLOW_EXECUTION_INITIATED)
+            .setStartChildWorkflowExecutionInitiatedEventAttributes(
+                StartChildWorkflowExecutionInitiatedEventAttributes.newBuilder()
+                    .setWorkflowId("synthetic-child")
+                    .setWorkflowType(WorkflowType.newBuilder().setName("SyntheticChild"))));
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(7)
+            .setEventTime(at(11_000))
+            .setEventType(EventType.EVENT_TYPE_CHILD_WORKFLOW_EXECUTION_STARTED)
+            .setChildWorkflowExecutionStartedEventAttributes(
+                ChildWorkflowExecutionStartedEventAttributes.newBuilder().setInitiatedEventId(6)));
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(8)
+            .setEventTime(at(12_000))
+            .setEventType(EventType.EVENT_TYPE_CHILD_WORKFLOW_EXECUTION_COMPLETED)
+            .setChildWorkflowExecutionCompletedEventAttributes(
+                ChildWorkflowExecutionCompletedEventAttributes.newBuilder()
+                    .setInitiatedEventId(6)
+                    .setStartedEventId(7)));
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(9)
+            .setEventTime(at(71_000))
+            .setEventType(EventType.EVENT_TYPE_TIMER_FIRED)
+            .setTimerFiredEventAttributes(
+                TimerFiredEventAttributes.newBuilder().setTimerId("5").setStartedEventId(5)));
+    addWorkflowTask(history, 10, 71_000, 71_010, 71_020);
+
+    return new WorkflowExecutionHistory(history.build(), WORKFLOW_ID);
+  }
+
+  private static void addWorkflowTask(
+      final History.Builder history,
+      final long scheduledEventId,
+      final long scheduledMillis,
+      final long startedMillis,
+      final long completedMillis) {
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(scheduledEventId)
+            .setEventTime(at(scheduledMillis))
+            .setEventType(EventType.EVENT_TYPE_WORKFLOW_TASK_SCHEDULED)
+            .setWorkflowTaskScheduledEventAttributes(
+                WorkflowTaskScheduledEventAttributes.newBuilder()
+                    .setTaskQueue(TaskQueue.newBuilder().setName(TASK_QUEUE))
+                    .setStartToCloseTimeout(Duration.newBuilder().setSeconds(10))
+                    .setAttempt(1)));
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(scheduledEventId + 1)
+            .setEventTime(at(startedMillis))
+            .setEventType(EventType.EVENT_TYPE_WORKFLOW_TASK_STARTED)
+            .setWorkflowTaskStartedEventAttributes(
+                WorkflowTaskStartedEventAttributes.newBuilder()
+                    .setScheduledEventId(scheduledEventId)));
+    history.addEvents(
+        HistoryEvent.newBuilder()
+            .setEventId(scheduledEventId + 2)
+            .setEventTime(at(completedMillis))
+            .setEventType(EventType.EVENT_TYPE_WORKFLOW_TASK_COMPLETED)
+            .setWorkflowTaskCompletedEventAttributes(
+                WorkflowTaskCompletedEventAttributes.newBuilder()
+                    .setScheduledEventId(scheduledEventId)
+                    .setStartedEventId(scheduledEventId + 1)));
+  }
+
+  private static Timestamp at(final long millis) {
+    return Timestamp.newBuilder()
+        .setSeconds(1_718_000_000L + millis / 1000)
+        .setNanos((int) (millis % 1000) * 1_000_000)
+        .build();
+  }
+}
@@ -0,0 +1,48 @@
+package com.antmendoza.benchmark;
+
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Correlation of activity events over synthetic histories.
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main WorkflowExecutionHistoryDataBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkflowExecutionHistoryDataBenchmark {
+
+  @Param({"1000", "10000", "50000"})
+  public int activities;
+
+  private WorkflowExecutionHistory history;
+
+  @Setup
+  public void setUp() {
+    history = SyntheticHistories.sequentialActivities(activities);
+  }
+
+  @Benchmark
+  public WorkflowExecutionHistoryData loadActivities() {
+    return new WorkflowExecutionHistoryData(history);
+  }
+}
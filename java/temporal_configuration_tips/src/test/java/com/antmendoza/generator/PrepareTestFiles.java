@@ -1,5 +1,6 @@
 package com.antmendoza.generator;
 
+import com.antmendoza.loader.ProtoHistoryWriter;
 import io.temporal.api.history.v1.History;
 import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryRequest;
 import io.temporal.client.WorkflowClient;
@@ -13,16 +14,20 @@ public class PrepareTestFiles {
   private static final WorkflowServiceStubs service = WorkflowServiceStubs.newLocalServiceStubs();
   private static final WorkflowClient client = WorkflowClient.newInstance(service);
 
+  /**
+   * Usage: {@code PrepareTestFiles [json | binpb | binpb.zst]}, json by default. Binary histories
+   * are read by {@link com.antmendoza.loader.ProtoHistoryLoaderFromFile}.
+   */
   public static void main(String[] args) {
 
     final Path path = Path.of("src/test/resources", "");
 
-    generateAndSaveHistoriesToFolder(path);
+    generateAndSaveHistoriesToFolder(path, args.length > 0 ? args[0] : "json");
 
     System.exit(0);
   }
 
-  private static void generateAndSaveHistoriesToFolder(final Path path) {
+  private static void generateAndSaveHistoriesToFolder(final Path path, final String format) {
     MyWorker.runWorker();
     for (int i = 0; i < 10; i++) {
       MyStarter.start();
@@ -51,16 +56,31 @@ public class PrepareTestFiles {
                       .getWorkflowExecutionHistory(getWorkflowExecutionHistoryRequest)
                       .getHistory();
 
-              String json = new WorkflowExecutionHistory(history).toJson(true);
+              final WorkflowExecutionHistory workflowExecutionHistory =
+                  new WorkflowExecutionHistory(history, f.getExecution().getWorkflowId());
+              final String runId = f.getWorkflowExecutionInfo().getExecution().getRunId();
 
-              try {
-                Files.writeString(
-                    Path.of(
-                        path.toString(),
-                        f.getWorkflowExecutionInfo().getExecution().getRunId() + ".json"),
-                    json);
-              } catch (IOException e) {
-                throw new RuntimeException(e);
+              switch (format) {
+                case "binpb":
+                  ProtoHistoryWriter.write(
+                      Path.of(path.toString(), runId + ProtoHistoryWriter.EXTENSION),
+                      workflowExecutionHistory,
+                      ProtoHistoryWriter.Compression.NONE);
+                  break;
+                case "binpb.zst":
+                  ProtoHistoryWriter.write(
+                      Path.of(path.toString(), runId + ProtoHistoryWriter.ZSTD_EXTENSION),
+                      workflowExecutionHistory,
+                      ProtoHistoryWriter.Compression.ZSTD);
+                  break;
+                default:
+                  try {
+                    Files.writeString(
+                        Path.of(path.toString(), runId + ".json"),
+                        workflowExecutionHistory.toJson(true));
+                  } catch (IOException e) {
+                    throw new RuntimeException(e);
+                  }
               }
             });
   }
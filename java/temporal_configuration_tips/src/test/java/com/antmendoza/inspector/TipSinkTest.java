@@ -0,0 +1,91 @@
+package com.antmendoza.inspector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.antmendoza.loader.HistoryLoaderFromDir;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class TipSinkTest {
+
+  private final Tip tip =
+      new Tip(
+          "ActivityData{workflowId='w', activityId='1'}",
+          Tip.ConfigurationProperty.ActivityStartToClose,
+          "Greet",
+          "tracingTaskQueue",
+          "too high, \"really\"",
+          120_000_000_000L,
+          4_000_000);
+
+  @Test
+  public void writeJsonLines() throws IOException {
+    final StringWriter out = new StringWriter();
+    try (JsonLinesTipSink sink = new JsonLinesTipSink(out)) {
+      sink.accept(tip);
+      sink.accept(tip);
+    }
+
+    final String[] lines = out.toString().split("\n");
+    assertEquals(2, lines.length);
+    final JsonNode json = new ObjectMapper().readTree(lines[1]);
+    assertEquals("ActivityStartToClose", json.get("configurationProperty").asText());
+    assertEquals("Greet", json.get("activityType").asText());
+    assertEquals("too high, \"really\"", json.get("actionSuggested").asText());
+    assertEquals(120_000_000_000L, json.get("configuredValueNanos").asLong());
+    assertEquals(4_000_000, json.get("currentValueNanos").asLong());
+  }
+
+  @Test
+  public void writeCsv() {
+    final StringWriter out = new StringWriter();
+    try (CsvTipSink sink = new CsvTipSink(out)) {
+      sink.accept(tip);
+    }
+
+    assertEquals(
+        CsvTipSink.HEADER
+            + "\r\n"
+            + "ActivityStartToClose,Greet,tracingTaskQueue,"
+            + "\"ActivityData{workflowId='w', activityId='1'}\","
+            + "\"too high, \"\"really\"\"\",120000000000,4000000\r\n",
+        out.toString());
+  }
+
+  @Test
+  public void streamDirectoryTipsWithoutKeepingThem() {
+    final TipSummary summary = new TipSummary();
+    final ConfigurationInspectorResult result =
+        new HistoryLoaderFromDir(Path.of("src/test/resources"))
+            .read(3, new FleetConfigurationInspector().collector(summary));
+
+    assertEquals(10, result.getTipCount());
+    assertEquals(10, summary.count());
+    assertThrows(IllegalStateException.class, result::getTips);
+    // one group, the ten executions of the same activity type
+    assertEquals(1, summary.ranked().size());
+    assertEquals(10, summary.ranked().get(0).count());
+  }
+
+  @Test
+  public void mergeKeptTipsIntoASink() {
+    final TipSummary summary = new TipSummary();
+    final ConfigurationInspectorResult kept = new ConfigurationInspectorResult();
+    kept.addTip(List.of(tip, tip));
+
+    final ConfigurationInspectorResult streamed = new ConfigurationInspectorResult(summary);
+    streamed.addTip(List.of(tip));
+    streamed.merge(kept);
+
+    assertEquals(3, streamed.getTipCount());
+    assertEquals(3, summary.count());
+    assertThrows(IllegalStateException.class, () -> kept.merge(streamed));
+    assertEquals(2, kept.getTips().size());
+  }
+}
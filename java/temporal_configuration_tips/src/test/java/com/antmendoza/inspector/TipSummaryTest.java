@@ -0,0 +1,121 @@
+package com.antmendoza.inspector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class TipSummaryTest {
+
+  @Test
+  public void foldIdenticalTipsAndRankByWastedCapacity() {
+    final TipSummary summary = new TipSummary();
+    // 1000 executions of a 1 second activity with a 2 minutes timeout
+    for (int i = 0; i < 1_000; i++) {
+      summary.accept(startToCloseTip("Short", "q", "execution-" + i, 120, 1 + i % 2));
+    }
+    // 10 executions of a 30 minutes activity with a 2 hours timeout
+    for (int i = 0; i < 10; i++) {
+      summary.accept(startToCloseTip("Long", "q", "execution-" + i, 7_200, 1_800));
+    }
+    // same activity type, another task queue
+    summary.accept(startToCloseTip("Short", "other", "execution-0", 120, 1));
+
+    final List<TipSummary.Group> ranked = summary.ranked();
+
+    assertEquals(3, ranked.size());
+    assertEquals(1_011, summary.count());
+
+    assertEquals("Short", ranked.get(0).activityType());
+    assertEquals("q", ranked.get(0).taskQueue());
+    assertEquals(1_000, ranked.get(0).count());
+    assertEquals(500 * 119 + 500 * 118, ranked.get(0).impactSlotSeconds(), 1e-6);
+    assertEquals(Duration.ofSeconds(1).toNanos(), ranked.get(0).minCurrentValueNanos());
+    assertEquals(Duration.ofSeconds(2).toNanos(), ranked.get(0).maxCurrentValueNanos());
+
+    assertEquals("Long", ranked.get(1).activityType());
+    assertEquals(10 * 5_400, ranked.get(1).impactSlotSeconds(), 1e-6);
+
+    assertEquals("other", ranked.get(2).taskQueue());
+  }
+
+  @Test
+  public void rankTipKindsByWastedSlotTime() {
+    final TipSummary summary = new TipSummary();
+    // 20 activities holding a slot for an hour when stuck: 1 hour timeout, 1 second latency
+    for (int i = 0; i < 20; i++) {
+      summary.accept(startToCloseTip("Short", "q", "execution-" + i, 3_600, 1));
+    }
+    // 100 workflow tasks waiting 10 seconds above the threshold, more tips but less waste
+    for (int i = 0; i < 100; i++) {
+      summary.accept(
+          new Tip(
+              "execution-" + i,
+              Tip.ConfigurationProperty.WorkflowTaskPollers,
+              "",
+              "q",
+              "Add workflow workers",
+              Duration.ofSeconds(1).toNanos(),
+              Duration.ofSeconds(11).toNanos()));
+    }
+    // 5 idle slots over 4 saturated windows of 1 minute
+    summary.accept(
+        new Tip(
+            "TaskQueue{name='q'}",
+            Tip.ConfigurationProperty.WorkerActivityPollers,
+            "",
+            "q",
+            "increase maxConcurrentActivityTaskPollers",
+            Duration.ofSeconds(1).toNanos(),
+            Duration.ofSeconds(30).toNanos(),
+            Duration.ofMinutes(5 * 4).toNanos()));
+    // timers hold no slot
+    summary.accept(
+        new Tip(
+            "timer",
+            Tip.ConfigurationProperty.TimerDrift,
+            "timers fire late",
+            Duration.ofSeconds(1),
+            Duration.ofHours(1)));
+
+    final List<TipSummary.Group> ranked = summary.ranked();
+
+    assertEquals(4, ranked.size());
+    assertEquals(
+        Tip.ConfigurationProperty.ActivityStartToClose, ranked.get(0).configurationProperty());
+    assertEquals(20 * 3_599, ranked.get(0).impactSlotSeconds(), 1e-6);
+    assertEquals(
+        Tip.ConfigurationProperty.WorkerActivityPollers, ranked.get(1).configurationProperty());
+    assertEquals(5 * 4 * 60, ranked.get(1).impactSlotSeconds(), 1e-6);
+    assertEquals(
+        Tip.ConfigurationProperty.WorkflowTaskPollers, ranked.get(2).configurationProperty());
+    assertEquals(100 * 10, ranked.get(2).impactSlotSeconds(), 1e-6);
+    assertEquals(Tip.ConfigurationProperty.TimerDrift, ranked.get(3).configurationProperty());
+    assertEquals(0, ranked.get(3).impactSlotSeconds(), 1e-6);
+  }
+
+  @Test
+  public void tipsWithEqualActionsAreEqual() {
+    assertEquals(
+        startToCloseTip("Short", "q", "execution-0", 120, 1),
+        startToCloseTip("Short", "q", "execution-0", 120, 1));
+  }
+
+  private static Tip startToCloseTip(
+      final String activityType,
+      final String taskQueue,
+      final String description,
+      final long timeoutSeconds,
+      final long latencySeconds) {
+    return new Tip(
+        description,
+        Tip.ConfigurationProperty.ActivityStartToClose,
+        activityType,
+        taskQueue,
+        // a new instance every time
+        new String("activityStartToClose configured valued is too high"),
+        Duration.ofSeconds(timeoutSeconds).toNanos(),
+        Duration.ofSeconds(latencySeconds).toNanos());
+  }
+}
@@ -0,0 +1,118 @@
+package com.antmendoza.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.benchmark.SyntheticHistories;
+import io.temporal.api.enums.v1.EventType;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+public class ActivityDataStoreTest {
+
+  @Test
+  public void offHeapStoreMatchesHeapStore() {
+
+    final ActivityDataStore offHeap = ActivityDataStore.offHeap();
+
+    final WorkflowExecutionHistoryData heapData =
+        new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(1_000));
+    final WorkflowExecutionHistoryData offHeapData =
+        new WorkflowExecutionHistoryData(SyntheticHistories.WORKFLOW_ID, offHeap);
+    SyntheticHistories.sequentialActivities(1_000).getEvents().forEach(offHeapData::addEvent);
+
+    assertEquals(1_000, offHeap.size());
+    assertEquals(heapData.getActivityDataList(), offHeapData.getActivityDataList());
+    assertEquals(EventType.EVENT_TYPE_ACTIVITY_TASK_TIMED_OUT, offHeap.finalEventType(9));
+    assertEquals("SyntheticWorkflow", offHeap.workflowType(0));
+  }
+
+  @Test
+  public void mergeTranslatesDictionaryIds() {
+
+    final ActivityDataStore store =
+        new HistoryLoaderFromDir(Path.of("src/test/resources", ""))
+            .read(3, ActivityDataStore.collector(ActivityDataStore::onHeap));
+    store.merge(
+        new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(5))
+            .getActivityDataStore());
+
+    assertEquals(15, store.size());
+    for (int row = 0; row < 10; row++) {
+      assertEquals("Greet", store.activityType(row));
+      assertEquals("tracingTaskQueue", store.taskQueue(row));
+      assertEquals("MyWorkflow", store.workflowType(row));
+    }
+    for (int row = 10; row < 15; row++) {
+      assertEquals("SyntheticActivity", store.activityType(row));
+      assertEquals(SyntheticHistories.TASK_QUEUE, store.taskQueue(row));
+    }
+  }
+
+  @Test
+  public void mergeTranslatesRetryPolicyIds() {
+
+    final ActivityDataStore store =
+        new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(5))
+            .getActivityDataStore();
+    store.merge(
+        new WorkflowExecutionHistoryData(SyntheticHistories.retryStorm(5)).getActivityDataStore());
+
+    assertEquals(10, store.size());
+    assertEquals(0, store.retryPolicy(0).getMaximumAttempts());
+    assertFalse(store.retryPolicy(0).hasMaximumInterval());
+    for (int row = 5; row < 10; row++) {
+      assertEquals(2, store.retryPolicy(row).getMaximumInterval().getSeconds());
+      assertEquals(6, store.attempt(row));
+      assertEquals(1, store.heartbeatTimeoutFailures(row));
+      assertEquals(5_000_000_000L, store.heartbeatTimeoutNanos(row));
+    }
+  }
+
+  @Test
+  public void idsAreKeptPerExecutionThroughMergeAndCache() throws IOException {
+
+    final ActivityDataStore store = store("run-a", SyntheticHistories.sequentialActivities(3));
+    store.merge(store("run-b", SyntheticHistories.retryStorm(2)));
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    store.writeTo(new DataOutputStream(bytes));
+    final ActivityDataStore read = store("run-c", SyntheticHistories.sequentialActivities(1));
+    read.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    assertEquals(6, read.size());
+    assertEquals("run-c", read.workflowId(0));
+    for (int row = 1; row < 4; row++) {
+      assertEquals("run-a", read.workflowId(row));
+      assertEquals(String.valueOf(row - 1), read.activityId(row));
+    }
+    for (int row = 4; row < 6; row++) {
+      assertEquals("run-b", read.workflowId(row));
+      assertEquals(String.valueOf(row - 4), read.activityId(row));
+    }
+    assertEquals(store.asList(), read.asList().subList(1, 6));
+  }
+
+  @Test
+  public void tensOfBytesPerActivity() {
+    assertTrue(ActivityDataStore.onHeap().bytesPerActivity() < 100);
+    assertEquals(
+        ActivityDataStore.onHeap().bytesPerActivity(),
+        ActivityDataStore.offHeap().bytesPerActivity());
+  }
+
+  private static ActivityDataStore store(
+      final String workflowId, final WorkflowExecutionHistory history) {
+    final ActivityDataStore store = ActivityDataStore.onHeap();
+    final WorkflowExecutionHistoryData data = new WorkflowExecutionHistoryData(workflowId, store);
+    history.getEvents().forEach(data::addEvent);
+    return store;
+  }
+}
@@ -1,13 +1,17 @@
 package com.antmendoza.loader;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.protobuf.Timestamp;
+import io.temporal.api.enums.v1.EventType;
 import io.temporal.api.history.v1.ActivityTaskCompletedEventAttributes;
 import io.temporal.api.history.v1.ActivityTaskScheduledEventAttributes;
 import io.temporal.api.history.v1.ActivityTaskStartedEventAttributes;
 import io.temporal.api.history.v1.HistoryEvent;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 
 public class ActivityDataTest {
@@ -18,27 +22,32 @@ public class ActivityDataTest {
     final HistoryEvent activityTaskScheduledEvent =
         HistoryEvent.newBuilder()
             .setEventId(1)
-            .setEventTime(Timestamp.newBuilder().setSeconds(2).build())
+            .setEventTime(Timestamp.newBuilder().setSeconds(2).setNanos(500_000_000).build())
             .setActivityTaskScheduledEventAttributes(
-                ActivityTaskScheduledEventAttributes.newBuilder().build())
+                ActivityTaskScheduledEventAttributes.newBuilder()
+                    .setStartToCloseTimeout(
+                        com.google.protobuf.Duration.newBuilder().setSeconds(10).setNanos(5))
+                    .build())
             .build();
 
-    final ActivityData activityData =
-        new ActivityData("my-workflowId", "myActivityId", activityTaskScheduledEvent);
+    final ActivityDataStore activityData = ActivityDataStore.onHeap();
+    final int row =
+        activityData.addScheduled("my-workflowId", "MyWorkflow", activityTaskScheduledEvent);
 
-    assertNotNull(activityData);
+    assertNotNull(activityData.get(row));
 
     final HistoryEvent activityTaskStartedEvent =
         HistoryEvent.newBuilder()
             .setEventId(2)
-            .setEventTime(Timestamp.newBuilder().setSeconds(5).build())
+            .setEventTime(Timestamp.newBuilder().setSeconds(5).setNanos(250_000_000).build())
             .setActivityTaskStartedEventAttributes(
                 ActivityTaskStartedEventAttributes.newBuilder().build())
             .build();
 
-    activityData.addActivityTaskStartedEvent(activityTaskStartedEvent);
+    activityData.setStarted(row, activityTaskStartedEvent);
 
-    assertEquals(3, activityData.scheduleToStartLatency());
+    assertEquals(Duration.ofMillis(2_750), activityData.get(row).scheduleToStartLatency());
+    assertFalse(activityData.get(row).isClosed());
 
     final HistoryEvent activityTaskCompletedEvent =
         HistoryEvent.newBuilder()
@@ -48,8 +57,32 @@ public class ActivityDataTest {
                 ActivityTaskCompletedEventAttributes.newBuilder().build())
             .build();
 
-    activityData.addActivityTaskFinalEvent(activityTaskCompletedEvent);
+    activityData.setClosed(
+        row, EventType.EVENT_TYPE_ACTIVITY_TASK_COMPLETED, activityTaskCompletedEvent);
 
-    assertEquals(5, activityData.startToCloseLatency());
+    final ActivityData closed = activityData.get(row);
+    assertTrue(closed.isClosed());
+    assertEquals(Duration.ofMillis(4_750), closed.startToCloseLatency());
+    assertEquals(Duration.ofMillis(7_500), closed.scheduleToCloseLatency());
+    assertEquals(Duration.ofSeconds(10, 5), closed.startToCloseConfigValue());
+  }
+
+  @Test
+  public void notStartedActivity() {
+
+    final ActivityDataStore activityDataStore = ActivityDataStore.onHeap();
+    activityDataStore.addScheduled(
+        "my-workflowId",
+        "MyWorkflow",
+        HistoryEvent.newBuilder()
+            .setEventId(1)
+            .setActivityTaskScheduledEventAttributes(
+                ActivityTaskScheduledEventAttributes.newBuilder().setActivityId("1"))
+            .build());
+    final ActivityData activityData = activityDataStore.get(0);
+
+    assertFalse(activityData.isStarted());
+    assertEquals(ActivityData.NOT_AVAILABLE, activityData.scheduleToStartNanos());
+    assertEquals(ActivityData.NOT_AVAILABLE, activityData.startToCloseNanos());
   }
 }
@@ -0,0 +1,146 @@
+package com.antmendoza.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.antmendoza.benchmark.SyntheticHistories;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class HistoryCacheTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  public void parseOnlyNewOrChangedFiles() throws IOException {
+    final Path histories = Files.createDirectory(tempDir.resolve("histories"));
+    try (Stream<Path> files = Files.list(Path.of("src/test/resources"))) {
+      for (Path file : files.collect(Collectors.toList())) {
+        Files.copy(file, histories.resolve(file.getFileName()));
+      }
+    }
+    final Path cacheFile = tempDir.resolve("histories.tips-cache");
+    final HistoryLoaderFromDir loader = new HistoryLoaderFromDir(histories);
+
+    final List<WorkflowExecutionHistoryData> parsed;
+    try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+      parsed = loader.read(3, Collectors.toList(), cache);
+      assertEquals(0, cache.hits());
+      assertEquals(10, cache.misses());
+    }
+
+    final List<WorkflowExecutionHistoryData> cached;
+    try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+      cached = loader.read(3, Collectors.toList(), cache);
+      assertEquals(10, cache.hits());
+      assertEquals(0, cache.misses());
+    }
+    assertEquals(activities(parsed), activities(cached));
+
+    final Path changed = histories.resolve("4eb9c3ba-a113-4b12-b21c-63dd450671c2.json");
+    Files.setLastModifiedTime(
+        changed, FileTime.fromMillis(Files.getLastModifiedTime(changed).toMillis() + 1_000));
+    try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+      loader.read(3, Collectors.counting(), cache);
+      assertEquals(9, cache.hits());
+      assertEquals(1, cache.misses());
+    }
+  }
+
+  @Test
+  public void roundTripWorkflowTasksChildWorkflowsAndTimers() throws IOException {
+    final Path history = tempDir.resolve("run.json");
+    Files.writeString(
+        history,
+        SyntheticHistories.slowWorkflowTasksTimerAndChild().toJson(true));
+    final Path cacheFile = tempDir.resolve("cache");
+
+    final WorkflowExecutionHistoryData parsed;
+    try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+      parsed = cache.get(history, f -> new StreamingHistoryLoaderFromFile(f).read());
+    }
+    try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+      final WorkflowExecutionHistoryData cached =
+          cache.get(
+              history,
+              f -> {
+                throw new AssertionError("should be cached");
+              });
+      assertEquals(parsed.getWorkflowType(), cached.getWorkflowType());
+      assertEquals(parsed.getWorkflowTasks(), cached.getWorkflowTasks());
+      assertEquals(parsed.getChildWorkflows(), cached.getChildWorkflows());
+      assertEquals(parsed.getTimers(), cached.getTimers());
+    }
+  }
+
+  @Test
+  public void filesWithTheSameRunIdHaveTheirOwnEntries() throws IOException {
+    final Path json = tempDir.resolve("run.json");
+    final Path binary = tempDir.resolve("run.binpb");
+    Files.writeString(json, SyntheticHistories.slowWorkflowTasksTimerAndChild().toJson(true));
+    Files.writeString(binary, SyntheticHistories.slowWorkflowTasksTimerAndChild().toJson(false));
+    final Path cacheFile = tempDir.resolve("cache");
+
+    for (int run = 0; run < 2; run++) {
+      try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+        cache.get(json, f -> new StreamingHistoryLoaderFromFile(f).read());
+        cache.get(binary, f -> new StreamingHistoryLoaderFromFile(f).read());
+        assertEquals(run == 0 ? 0 : 2, cache.hits());
+      }
+    }
+  }
+
+  @Test
+  public void corruptCacheFilesAreRewritten() throws IOException {
+    final Path history = tempDir.resolve("run.json");
+    Files.writeString(history, SyntheticHistories.slowWorkflowTasksTimerAndChild().toJson(true));
+    final Path cacheFile = tempDir.resolve("cache");
+    try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+      cache.get(history, f -> new StreamingHistoryLoaderFromFile(f).read());
+    }
+    // the header is intact, the key is not valid modified UTF-8
+    final byte[] bytes = Files.readAllBytes(cacheFile);
+    bytes[2 * Integer.BYTES + 2] = (byte) 0xff;
+    Files.write(cacheFile, bytes);
+
+    for (int run = 0; run < 2; run++) {
+      try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+        cache.get(history, f -> new StreamingHistoryLoaderFromFile(f).read());
+        assertEquals(run, cache.hits());
+      }
+    }
+  }
+
+  @Test
+  public void unwritableCacheStillLoadsHistories() throws IOException {
+    final Path history = tempDir.resolve("run.json");
+    Files.writeString(history, SyntheticHistories.slowWorkflowTasksTimerAndChild().toJson(true));
+    // the parent of the cache file is a regular file, the cache can't be created
+    final Path cacheFile = history.resolve("cache");
+
+    try (HistoryCache cache = HistoryCache.open(cacheFile)) {
+      final WorkflowExecutionHistoryData data =
+          cache.get(history, f -> new StreamingHistoryLoaderFromFile(f).read());
+      assertEquals(1, cache.misses());
+      assertEquals(
+          activities(List.of(new StreamingHistoryLoaderFromFile(history).read())),
+          activities(List.of(data)));
+      assertNotNull(cache.writeFailure());
+    }
+  }
+
+  private static List<ActivityData> activities(final List<WorkflowExecutionHistoryData> list) {
+    return list.stream()
+        .flatMap(data -> data.getActivityDataList().stream())
+        .sorted(Comparator.comparing(ActivityData::activityId))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,89 @@
+package com.antmendoza.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.antmendoza.generator.workflow.ActivitiesImpl;
+import com.antmendoza.generator.workflow.MyWorkflow;
+import com.antmendoza.generator.workflow.MyWorkflowImpl;
+import com.antmendoza.inspector.ConfigurationInspectorResult;
+import com.antmendoza.inspector.WorkflowConfigurationInspector;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HistoryLoaderFromServiceTest {
+
+  private static final String TASK_QUEUE = "history-loader-from-service";
+  private static final int WORKFLOWS = 5;
+
+  private TestWorkflowEnvironment testEnv;
+  private WorkflowClient client;
+
+  @BeforeEach
+  public void setUp() {
+    testEnv = TestWorkflowEnvironment.newInstance();
+    final Worker worker = testEnv.newWorker(TASK_QUEUE);
+    worker.registerWorkflowImplementationTypes(MyWorkflowImpl.class);
+    worker.registerActivitiesImplementations(new ActivitiesImpl());
+    testEnv.start();
+
+    client = testEnv.getWorkflowClient();
+    for (int i = 0; i < WORKFLOWS; i++) {
+      client
+          .newWorkflowStub(
+              MyWorkflow.class,
+              WorkflowOptions.newBuilder()
+                  .setWorkflowId("workflow-" + i)
+                  .setTaskQueue(TASK_QUEUE)
+                  .build())
+          .greet("name");
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    testEnv.close();
+  }
+
+  @Test
+  public void loadHistories() {
+    final List<WorkflowExecutionHistory> histories =
+        HistoryLoaderFromService.closedExecutions(client).read();
+
+    assertEquals(WORKFLOWS, histories.size());
+  }
+
+  @Test
+  public void feedEveryPageToTheAnalyzer() {
+    // a few events per page, every history takes several calls
+    final List<WorkflowExecutionHistoryData> list =
+        HistoryLoaderFromService.closedExecutions(client)
+            .withPageSize(2)
+            .read(2, Collectors.toList());
+
+    assertEquals(WORKFLOWS, list.size());
+    list.forEach(
+        data -> {
+          assertEquals("MyWorkflow", data.getWorkflowType());
+          assertEquals(1, data.getActivityDataList().size());
+          assertEquals(true, data.getActivityDataList().get(0).isClosed());
+        });
+  }
+
+  @Test
+  public void inspectNamespace() {
+    final ConfigurationInspectorResult result =
+        HistoryLoaderFromService.closedExecutions(client)
+            .read(2, WorkflowConfigurationInspector.collector());
+
+    // activityStartToClose of MyWorkflowImpl is 2 minutes
+    assertEquals(WORKFLOWS, result.getTips().size());
+  }
+}
@@ -1,10 +1,12 @@
 package com.antmendoza.loader;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import io.temporal.common.WorkflowExecutionHistory;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 public class HistoryLoaderTest {
@@ -15,4 +17,20 @@ public class HistoryLoaderTest {
     final List<WorkflowExecutionHistory> list = new HistoryLoaderFromDir(path).read();
     assertEquals(10, list.size());
   }
+
+  @Test
+  public void loadHistoriesInParallel() {
+    final Path path = Path.of("src/test/resources", "");
+    final List<WorkflowExecutionHistoryData> list =
+        new HistoryLoaderFromDir(path).read(3, Collectors.toList());
+    assertEquals(10, list.size());
+    list.forEach(data -> assertEquals(1, data.getActivityDataList().size()));
+  }
+
+  @Test
+  public void failWhenAHistoryCannotBeLoaded() {
+    final Path path = Path.of("src/main/java/com/antmendoza/loader", "");
+    assertThrows(
+        RuntimeException.class, () -> new HistoryLoaderFromDir(path).read(2, Collectors.counting()));
+  }
 }
@@ -0,0 +1,30 @@
+package com.antmendoza.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class LongObjectHashMapTest {
+
+  @Test
+  public void putGetRemove() {
+
+    final LongObjectHashMap<String> map = new LongObjectHashMap<>(2);
+    for (long i = 1; i <= 1_000; i++) {
+      map.put(i * 3, "v" + i);
+    }
+    assertEquals(1_000, map.size());
+    assertEquals("v7", map.get(21));
+    assertNull(map.get(22));
+
+    // remove every other key, the remaining ones must still be reachable
+    for (long i = 1; i <= 1_000; i += 2) {
+      assertEquals("v" + i, map.remove(i * 3));
+    }
+    assertEquals(500, map.size());
+    for (long i = 1; i <= 1_000; i++) {
+      assertEquals(i % 2 == 0 ? "v" + i : null, map.get(i * 3));
+    }
+  }
+}
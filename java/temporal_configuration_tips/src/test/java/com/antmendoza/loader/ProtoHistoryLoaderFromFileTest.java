@@ -0,0 +1,75 @@
+package com.antmendoza.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.benchmark.SyntheticHistories;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ProtoHistoryLoaderFromFileTest {
+
+  @TempDir Path dir;
+
+  @Test
+  public void readSameEventsAsWritten() {
+
+    final WorkflowExecutionHistory history = SyntheticHistories.sequentialActivities(100);
+    for (ProtoHistoryWriter.Compression compression : ProtoHistoryWriter.Compression.values()) {
+      final Path file = dir.resolve("run-" + compression + ProtoHistoryWriter.EXTENSION);
+      ProtoHistoryWriter.write(file, history, compression);
+
+      final List<HistoryEvent> events = new ArrayList<>();
+      new ProtoHistoryLoaderFromFile(file).read(events::add);
+      assertEquals(history.getEvents(), events);
+
+      final WorkflowExecutionHistoryData data = new ProtoHistoryLoaderFromFile(file).read();
+      assertEquals(SyntheticHistories.WORKFLOW_ID, data.getActivityDataList().get(0).workflowId());
+      assertEquals(
+          new WorkflowExecutionHistoryData(history).getActivityDataList(),
+          data.getActivityDataList());
+    }
+  }
+
+  @Test
+  public void smallerThanJson() throws IOException {
+
+    final WorkflowExecutionHistory history = SyntheticHistories.sequentialActivities(1_000);
+    final Path json = dir.resolve("run.json");
+    Files.writeString(json, history.toJson(true));
+    final Path proto = dir.resolve("run" + ProtoHistoryWriter.EXTENSION);
+    ProtoHistoryWriter.write(proto, history, ProtoHistoryWriter.Compression.NONE);
+    final Path zstd = dir.resolve("run" + ProtoHistoryWriter.ZSTD_EXTENSION);
+    ProtoHistoryWriter.write(zstd, history, ProtoHistoryWriter.Compression.ZSTD);
+
+    assertTrue(Files.size(proto) * 3 < Files.size(json));
+    assertTrue(Files.size(zstd) < Files.size(proto));
+  }
+
+  @Test
+  public void loadDirectoryWithBothFormats() {
+
+    final Path resources = Path.of("src/test/resources");
+    final List<WorkflowExecutionHistory> jsonHistories = new HistoryLoaderFromDir(resources).read();
+    for (int i = 0; i < jsonHistories.size(); i++) {
+      ProtoHistoryWriter.write(
+          dir.resolve(i + ProtoHistoryWriter.ZSTD_EXTENSION),
+          jsonHistories.get(i),
+          ProtoHistoryWriter.Compression.ZSTD);
+    }
+
+    final List<WorkflowExecutionHistoryData> protoData =
+        new HistoryLoaderFromDir(dir).read(2, Collectors.toList());
+
+    assertEquals(jsonHistories.size(), protoData.size());
+    protoData.forEach(data -> assertEquals(1, data.getActivityDataList().size()));
+  }
+}
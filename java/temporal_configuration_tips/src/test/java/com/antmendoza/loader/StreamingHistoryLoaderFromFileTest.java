@@ -0,0 +1,53 @@
+package com.antmendoza.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StreamingHistoryLoaderFromFileTest {
+
+  private final Path path =
+      Path.of("src/test/resources", "4eb9c3ba-a113-4b12-b21c-63dd450671c2.json");
+
+  @Test
+  public void readSameEventsAsFromJson() {
+
+    final List<HistoryEvent> events = new ArrayList<>();
+    new StreamingHistoryLoaderFromFile(path).read(events::add);
+
+    assertEquals(new HistoryLoaderFromFile(path).read().getEvents(), events);
+  }
+
+  @Test
+  public void loadActivities() {
+
+    final List<ActivityData> activityDataList =
+        new StreamingHistoryLoaderFromFile(path).read().getActivityDataList();
+
+    assertEquals(1, activityDataList.size());
+    assertEquals(
+        "ActivityData{workflowId='workflow_id_in_replay', activityId='a490efe7-fd1f-38fc-a914-7caa325a2422'}",
+        activityDataList.get(0).entityDescription());
+  }
+
+  @Test
+  public void readOldHistoryFormat(@TempDir final Path dir) throws IOException {
+
+    final WorkflowExecutionHistory history = new HistoryLoaderFromFile(path).read();
+    final Path oldFormat = dir.resolve("old-format.json");
+    Files.writeString(oldFormat, LegacyHistoryJson.fromProtoJson(history.toJson(true)));
+
+    final List<HistoryEvent> events = new ArrayList<>();
+    new StreamingHistoryLoaderFromFile(oldFormat).read(events::add);
+
+    assertEquals(history.getEvents(), events);
+  }
+}
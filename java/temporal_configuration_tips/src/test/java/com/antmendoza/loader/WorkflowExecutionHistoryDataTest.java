@@ -1,9 +1,14 @@
 package com.antmendoza.loader;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.antmendoza.benchmark.SyntheticHistories;
+import io.temporal.api.enums.v1.EventType;
 import io.temporal.common.WorkflowExecutionHistory;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class WorkflowExecutionHistoryDataTest {
@@ -17,4 +22,40 @@ public class WorkflowExecutionHistoryDataTest {
     assertEquals(
         1, new WorkflowExecutionHistoryData(workflowExecutionHistory).getActivityDataList().size());
   }
+
+  @Test
+  public void correlateTimedOutActivities() {
+
+    final List<ActivityData> activityDataList =
+        new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(20))
+            .getActivityDataList();
+
+    assertEquals(20, activityDataList.size());
+    // every tenth activity times out, it has to be correlated as well
+    activityDataList.forEach(ad -> assertTrue(ad.isClosed()));
+  }
+
+  @Test
+  public void correlateWorkflowTasksChildWorkflowsAndTimers() {
+
+    final WorkflowExecutionHistoryData data =
+        new WorkflowExecutionHistoryData(SyntheticHistories.slowWorkflowTasksTimerAndChild());
+
+    final List<WorkflowTaskData> workflowTasks = data.getWorkflowTasks();
+    assertEquals(2, workflowTasks.size());
+    assertEquals(Duration.ofSeconds(3), workflowTasks.get(0).scheduleToStartLatency());
+    assertEquals(Duration.ofSeconds(6), workflowTasks.get(0).startToCloseLatency());
+    assertEquals("SyntheticWorkflow", workflowTasks.get(0).workflowType());
+
+    final List<ChildWorkflowData> childWorkflows = data.getChildWorkflows();
+    assertEquals(1, childWorkflows.size());
+    assertEquals(Duration.ofSeconds(2), childWorkflows.get(0).startLatency());
+    assertEquals(
+        EventType.EVENT_TYPE_CHILD_WORKFLOW_EXECUTION_COMPLETED,
+        childWorkflows.get(0).finalEventType());
+
+    final List<TimerData> timers = data.getTimers();
+    assertEquals(1, timers.size());
+    assertEquals(Duration.ofSeconds(2), timers.get(0).drift());
+  }
 }
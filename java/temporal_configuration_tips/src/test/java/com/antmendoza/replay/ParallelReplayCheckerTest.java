@@ -0,0 +1,41 @@
+package com.antmendoza.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.generator.workflow.MyWorkflowImpl;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+public class ParallelReplayCheckerTest {
+
+  @Test
+  public void replayCorpusInShards() {
+
+    final ReplayCheckResult result;
+    try (ParallelReplayChecker checker = new ParallelReplayChecker(2, MyWorkflowImpl.class)) {
+      result = checker.check(Path.of("src/test/resources"), 3);
+    }
+
+    assertEquals(10, result.histories());
+    assertTrue(result.isDeterministic(), result.toString());
+  }
+
+  @Test
+  public void groupFailuresBySite() {
+
+    final ReplayCheckResult result;
+    try (ParallelReplayChecker checker =
+        new ParallelReplayChecker(2, ReplayCostEstimatorTest.NoActivityWorkflow.class)) {
+      result = checker.check(Path.of("src/test/resources"), 3);
+    }
+
+    assertEquals(10, result.failures());
+    assertEquals(1, result.groups().size());
+    assertTrue(
+        result.groups().get(0).site().startsWith("io.temporal.worker.NonDeterministicException"),
+        result.toString());
+    assertEquals(10, result.groups().get(0).count());
+    assertEquals(ReplayCheckResult.EXAMPLES, result.groups().get(0).workflowIds().size());
+  }
+}
@@ -0,0 +1,58 @@
+package com.antmendoza.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.generator.workflow.MyWorkflow;
+import com.antmendoza.generator.workflow.MyWorkflowImpl;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+public class ReplayCostEstimatorTest {
+
+  @Test
+  public void measureReplays() {
+
+    final ReplayCostStats stats;
+    try (ReplayCostEstimator estimator = new ReplayCostEstimator(MyWorkflowImpl.class)) {
+      stats = estimator.replay(Path.of("src/test/resources"), 2);
+    }
+
+    assertEquals(1, stats.ranked().size());
+    final WorkflowTypeReplayCost cost = stats.ranked().get(0);
+    assertEquals("MyWorkflow", cost.workflowType());
+    assertEquals(10, cost.replays());
+    assertEquals(0, cost.failures());
+    assertEquals(120, cost.events());
+    assertTrue(cost.eventsPerSecond() > 0);
+    assertTrue(cost.meanAllocatedBytes() > 0);
+  }
+
+  @Test
+  public void countNonDeterministicReplays() {
+
+    final ReplayCostStats stats;
+    try (ReplayCostEstimator estimator = new ReplayCostEstimator(NoActivityWorkflow.class)) {
+      stats = estimator.replay(Path.of("src/test/resources"), 0);
+    }
+
+    assertEquals(10, stats.ranked().get(0).failures());
+  }
+
+  /** Schedules no activity, unlike the workflow that produced the histories. */
+  public static class NoActivityWorkflow implements MyWorkflow {
+
+    @Override
+    public String greet(final String name) {
+      return name;
+    }
+
+    @Override
+    public void setLanguage(final String language) {}
+
+    @Override
+    public String getLanguage() {
+      return "";
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.antmendoza.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.benchmark.SyntheticHistories;
+import com.antmendoza.loader.HistoryLoaderFromDir;
+import com.antmendoza.loader.WorkflowExecutionHistoryData;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class ActivityLatencyStatsTest {
+
+  @Test
+  public void aggregateHistories() {
+
+    final ActivityLatencyStats stats =
+        new HistoryLoaderFromDir(Path.of("src/test/resources", ""))
+            .read(3, ActivityLatencyStats.collector());
+
+    assertEquals(1, stats.getLatencies().size());
+    final ActivityLatency latency =
+        stats.getLatencies().get(new ActivityKey("Greet", "tracingTaskQueue"));
+    assertEquals(10, latency.count());
+    assertEquals(Duration.ofMinutes(2), latency.startToCloseConfigValue());
+    assertTrue(latency.maxStartToClose().compareTo(Duration.ofSeconds(1)) < 0);
+  }
+
+  @Test
+  public void mergeKeepsEveryExecution() {
+
+    final ActivityLatencyStats first = new ActivityLatencyStats();
+    first.record(new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(100)));
+    final ActivityLatencyStats second = new ActivityLatencyStats();
+    second.record(new WorkflowExecutionHistoryData(SyntheticHistories.sequentialActivities(50)));
+
+    final ActivityLatency latency =
+        first
+            .merge(second)
+            .getLatencies()
+            .get(new ActivityKey("SyntheticActivity", SyntheticHistories.TASK_QUEUE));
+
+    assertEquals(150, latency.count());
+    // synthetic activities take 1.5 seconds, two significant digits
+    assertEquals(1_500, latency.startToClose(99.9).toMillis(), 10);
+  }
+}
@@ -0,0 +1,65 @@
+package com.antmendoza.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antmendoza.benchmark.SyntheticHistories;
+import com.antmendoza.loader.HistoryLoaderFromDir;
+import com.antmendoza.loader.HistorySize;
+import io.temporal.api.enums.v1.EventType;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+public class HistorySizeStatsTest {
+
+  @Test
+  public void aggregateHistories() {
+
+    final HistorySizeStats stats =
+        new HistoryLoaderFromDir(Path.of("src/test/resources", ""))
+            .readSizes(3, HistorySizeStats.collector());
+
+    final WorkflowTypeSize size = stats.getSizes().get("MyWorkflow");
+    assertEquals(10, size.events(EventType.EVENT_TYPE_ACTIVITY_TASK_SCHEDULED));
+    assertTrue(size.payloadBytes(EventType.EVENT_TYPE_ACTIVITY_TASK_SCHEDULED) > 0);
+    assertTrue(
+        size.payloadBytes(EventType.EVENT_TYPE_ACTIVITY_TASK_SCHEDULED)
+            < size.bytes(EventType.EVENT_TYPE_ACTIVITY_TASK_SCHEDULED));
+    assertTrue(stats.toString().contains("WorkflowType 'MyWorkflow'"), stats.toString());
+  }
+
+  @Test
+  public void projectGrowthPerIteration() {
+
+    final HistorySizeStats first = new HistorySizeStats();
+    first.record(new HistorySize(SyntheticHistories.signalLoop(10, 100)));
+    final HistorySizeStats second = new HistorySizeStats();
+    second.record(new HistorySize(SyntheticHistories.signalLoop(30, 100)));
+
+    final WorkflowTypeSize size = first.merge(second).getSizes().get("SyntheticLoop");
+
+    assertEquals(2, size.histories());
+    // a signal and a workflow task per iteration, the started event once per run
+    assertEquals(4, size.eventsPerIteration(), 0.001);
+    assertEquals(1, size.fixedEvents(), 0.001);
+    // 100 bytes of data plus the field tag and length of the payload
+    assertEquals(40 * 102, size.payloadBytes(EventType.EVENT_TYPE_WORKFLOW_EXECUTION_SIGNALED));
+    assertEquals(EventType.EVENT_TYPE_WORKFLOW_EXECUTION_SIGNALED, size.eventTypes().get(0));
+    assertEquals(250, size.continueAsNewIterations(1_001, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void noThresholdWithoutIterations() {
+
+    final HistorySizeStats stats = new HistorySizeStats();
+    stats.record(new HistorySize(SyntheticHistories.sequentialActivities(10)));
+
+    assertEquals(
+        Long.MAX_VALUE,
+        stats
+            .getSizes()
+            .get("SyntheticWorkflow")
+            .continueAsNewIterations(
+                HistorySizeStats.DEFAULT_MAX_EVENTS, HistorySizeStats.DEFAULT_MAX_BYTES));
+  }
+}